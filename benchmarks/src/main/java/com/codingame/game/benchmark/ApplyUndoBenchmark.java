@@ -0,0 +1,68 @@
+package com.codingame.game.benchmark;
+
+import com.codingame.game.LeagueRules;
+import com.codingame.game.MatchConfig;
+import com.codingame.game.rules.GameState;
+import com.codingame.game.rules.Rules;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate of the tree search primitives: expanding a few plies with apply then rolling them back with undo,
+ * and copying a whole state. Positions are taken after a few random turns of a game of the last league.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApplyUndoBenchmark {
+    private static final int DEPTH = 8;
+
+    @Param({"1", "42"})
+    public long seed;
+
+    @Param({"20"})
+    public int openingActions;
+
+    private Rules rules;
+    private PlayoutPolicy policy;
+    private int step;
+
+    @Setup
+    public void setUp() {
+        MatchConfig config = MatchConfig.fromLeague(LeagueRules.fromIndex(4));
+        rules = new Rules(config, new GameState());
+        rules.init(seed, 2);
+        policy = new PlayoutPolicy(config);
+        for (int i=0;i<openingActions && !rules.getState().isGameOver();++i) {
+            rules.apply(policy.choose(rules.getState(), i));
+        }
+        rules = new Rules(config, rules.getState().copy());
+    }
+
+    //one expand/rollback cycle is one apply and its undo
+    @Benchmark
+    @OperationsPerInvocation(DEPTH)
+    public int expandAndRollback() {
+        GameState state = rules.getState();
+        int applied = 0;
+        for (int i=0;i<DEPTH && !state.isGameOver();++i) {
+            rules.apply(policy.choose(state, step++));
+            applied++;
+        }
+        int activePlayerId = state.getActivePlayerId();
+        for (int i=0;i<applied;++i) {
+            rules.undo();
+        }
+        return activePlayerId;
+    }
+
+    @Benchmark
+    public void copy(Blackhole blackhole) {
+        blackhole.consume(rules.getState().copy());
+    }
+}
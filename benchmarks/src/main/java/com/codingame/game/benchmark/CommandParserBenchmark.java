@@ -0,0 +1,58 @@
+package com.codingame.game.benchmark;
+
+import com.codingame.game.*;
+import com.codingame.game.rules.GameState;
+import com.codingame.game.rules.PlayerState;
+import com.codingame.game.rules.Rules;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading bot commands with the single pass CommandParser, against the former regular expressions.
+ * The commands are valid for a player who just got their first hand (which always holds a bonus card).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommandParserBenchmark {
+    @Param({"MOVE 3", "MOVE 5 going to the coffee machine", "GIVE 8", "WAIT", "RANDOM let's see"})
+    public String command;
+
+    private final CommandParser commandParser = new CommandParser();
+    private final RegexCommandParser regexCommandParser = new RegexCommandParser();
+    private PlayerState player;
+    private GamePhase gamePhase;
+    private List<Application> applications;
+    private MatchConfig config;
+
+    @Setup
+    public void setUp() {
+        config = MatchConfig.fromLeague(LeagueRules.fromIndex(4));
+        Rules rules = new Rules(config, new GameState());
+        rules.init(1, 2);
+        player = rules.getState().getPlayer(0);
+        applications = rules.getState().getApplications();
+        if (command.startsWith("MOVE")) {
+            gamePhase = GamePhase.MOVE;
+        } else if (command.startsWith("GIVE")) {
+            gamePhase = GamePhase.GIVE_CARD;
+        } else {
+            gamePhase = GamePhase.PLAY_CARD;
+        }
+    }
+
+    @Benchmark
+    public int tokenizer() throws InvalidInputException, GameRuleException {
+        return commandParser.parse(command, player, gamePhase, applications, config);
+    }
+
+    @Benchmark
+    public int regex() throws InvalidInputException, GameRuleException {
+        return regexCommandParser.parse(command, player, gamePhase, applications, config);
+    }
+}
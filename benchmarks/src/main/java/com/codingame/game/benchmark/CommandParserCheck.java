@@ -0,0 +1,102 @@
+package com.codingame.game.benchmark;
+
+import com.codingame.game.*;
+import com.codingame.game.action.RandomActionFactory;
+import com.codingame.game.rules.GameState;
+import com.codingame.game.rules.PlayerState;
+import com.codingame.game.rules.Rules;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Oracle of the single pass {@link CommandParser}: in every phase of random games of each league, fuzzed commands must
+ * give the same action code and message, or the same exception, as the former {@link RegexCommandParser}.
+ * Re-run it after changing the parser:
+ * java -cp target/benchmarks.jar com.codingame.game.benchmark.CommandParserCheck [games per league]
+ */
+public class CommandParserCheck {
+    private static final String[] VERBS = { "WAIT", "RANDOM", "MOVE", "GIVE", "THROW", "TRAINING", "CODING", "DAILY_ROUTINE",
+            "TASK_PRIORITIZATION", "ARCHITECTURE_STUDY", "CONTINUOUS_INTEGRATION", "CODE_REVIEW", "REFACTORING", "RELEASE",
+            "move", "MOVES", "WAITING", "RELEASE_", "", " " };
+    private static final String[] ARGUMENTS = { "0", "1", "3", "7", "8", "9", "10", "27", "-1", "007", "2147483648", "x", "" };
+    private static final String[] SEPARATORS = { " ", "  ", "\t", "" };
+    private static final String[] MESSAGES = { "", " hello", "  two  words ", " 3", " MOVE 2", "\tx", " \u00e9t\u00e9" };
+    private static final int COMMANDS_PER_POSITION = 20;
+    private static final int MAX_ACTIONS_COUNT = 400;
+
+    public static void main(String[] args) {
+        int gamesCount = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        CommandParser commandParser = new CommandParser();
+        RegexCommandParser regexCommandParser = new RegexCommandParser();
+        RandomActionFactory randomActionFactory = new RandomActionFactory();
+        Random random = new Random(0);
+        long checkedCount = 0;
+        int mismatchesCount = 0;
+        for (int league=1;league<=4;++league) {
+            MatchConfig config = MatchConfig.fromLeague(LeagueRules.fromIndex(league));
+            for (int seed=0;seed<gamesCount;++seed) {
+                Rules rules = new Rules(config, new GameState());
+                rules.init(seed, 2);
+                GameState state = rules.getState();
+                for (int step=0;step<MAX_ACTIONS_COUNT && !state.isGameOver();++step) {
+                    PlayerState player = state.getActivePlayer();
+                    GamePhase gamePhase = state.getGamePhase();
+                    List<Application> applications = state.getApplications();
+                    List<String> possibleActions = rules.getPossibleActions(player, gamePhase);
+                    for (int i=0;i<COMMANDS_PER_POSITION;++i) {
+                        String command = i % 4 == 0
+                                ? possibleActions.get(random.nextInt(possibleActions.size())) + pick(MESSAGES, random)
+                                : fuzz(random);
+                        String expected = parse(regexCommandParser, command, player, gamePhase, applications, config);
+                        String got = parse(commandParser, command, player, gamePhase, applications, config);
+                        checkedCount++;
+                        if (!expected.equals(got) && ++mismatchesCount <= 20) {
+                            System.out.println(String.format("league %d seed %d %s '%s': %s instead of %s", league, seed,
+                                    gamePhase, command, got, expected));
+                        }
+                    }
+                    int action = randomActionFactory.createAction(gamePhase, player, applications, config, state.getRandom());
+                    rules.performAction(player, action);
+                    rules.nextPhase();
+                }
+            }
+        }
+        System.out.println(String.format("%d commands checked, %d mismatches", checkedCount, mismatchesCount));
+        System.exit(mismatchesCount == 0 ? 0 : 1);
+    }
+
+    private static String fuzz(Random random) {
+        StringBuilder command = new StringBuilder(pick(VERBS, random));
+        int argumentsCount = random.nextInt(4);
+        for (int i=0;i<argumentsCount;++i) {
+            command.append(pick(SEPARATORS, random)).append(pick(ARGUMENTS, random));
+        }
+        return command.append(pick(MESSAGES, random)).toString();
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    //the outcome of the parser, as a string to compare
+    private static String parse(CommandParser parser, String command, PlayerState player, GamePhase gamePhase,
+            List<Application> applications, MatchConfig config) {
+        try {
+            int action = parser.parse(command, player, gamePhase, applications, config);
+            return action + " '" + parser.getMessage() + "'";
+        } catch (Exception e) {
+            return e.getClass().getSimpleName() + " " + e.getMessage();
+        }
+    }
+
+    private static String parse(RegexCommandParser parser, String command, PlayerState player, GamePhase gamePhase,
+            List<Application> applications, MatchConfig config) {
+        try {
+            int action = parser.parse(command, player, gamePhase, applications, config);
+            return action + " '" + parser.getMessage() + "'";
+        } catch (Exception e) {
+            return e.getClass().getSimpleName() + " " + e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.codingame.game.benchmark;
+
+import com.codingame.game.GamePhase;
+import com.codingame.game.LeagueRules;
+import com.codingame.game.MatchConfig;
+import com.codingame.game.action.RandomActionFactory;
+import com.codingame.game.rules.FrameInputEncoder;
+import com.codingame.game.rules.GameState;
+import com.codingame.game.rules.PlayerState;
+import com.codingame.game.rules.Rules;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Checks that the bytes of the {@link FrameInputEncoder} are those of the former input lines: the phase, then the
+ * lines of Rules.getCurrentFrameInfoFor, each ended by a new line, for both players in every position of random games
+ * of each league. Re-run it after changing the encoder:
+ * java -cp target/benchmarks.jar com.codingame.game.benchmark.FrameInputCheck [games per league]
+ */
+public class FrameInputCheck {
+    private static final int MAX_ACTIONS_COUNT = 400;
+
+    public static void main(String[] args) {
+        int gamesCount = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        FrameInputEncoder encoder = new FrameInputEncoder();
+        RandomActionFactory randomActionFactory = new RandomActionFactory();
+        long checkedCount = 0;
+        int mismatchesCount = 0;
+        for (int league=1;league<=4;++league) {
+            MatchConfig config = MatchConfig.fromLeague(LeagueRules.fromIndex(league));
+            for (int seed=0;seed<gamesCount;++seed) {
+                Rules rules = new Rules(config, new GameState());
+                rules.init(seed, 2);
+                GameState state = rules.getState();
+                for (int step=0;step<MAX_ACTIONS_COUNT && !state.isGameOver();++step) {
+                    GamePhase gamePhase = state.getGamePhase();
+                    for (PlayerState player : state.getPlayers()) {
+                        StringBuilder lines = new StringBuilder(gamePhase.toString()).append('\n');
+                        for (String line : rules.getCurrentFrameInfoFor(player, gamePhase)) {
+                            lines.append(line).append('\n');
+                        }
+                        String expected = lines.toString();
+                        String got = new String(encoder.getBuffer(), 0, encoder.encode(rules, player, gamePhase), StandardCharsets.UTF_8);
+                        checkedCount++;
+                        if (!expected.equals(got) && ++mismatchesCount <= 5) {
+                            System.out.println(String.format("league %d seed %d step %d player %d:\n%s---\ninstead of\n%s",
+                                    league, seed, step, player.getIndex(), got, expected));
+                        }
+                    }
+                    PlayerState player = state.getActivePlayer();
+                    int action = randomActionFactory.createAction(gamePhase, player, state.getApplications(), config, state.getRandom());
+                    rules.performAction(player, action);
+                    rules.nextPhase();
+                }
+            }
+        }
+        System.out.println(String.format("%d inputs checked, %d mismatches", checkedCount, mismatchesCount));
+        System.exit(mismatchesCount == 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,64 @@
+package com.codingame.game.benchmark;
+
+import com.codingame.game.GamePhase;
+import com.codingame.game.LeagueRules;
+import com.codingame.game.MatchConfig;
+import com.codingame.game.rules.GameState;
+import com.codingame.game.rules.PlayerState;
+import com.codingame.game.rules.Rules;
+
+/**
+ * Realistic positions for the benchmarks: games of the last league walked with the {@link PlayoutPolicy} up to a stage,
+ * then up to a phase of the active player.
+ * <ul>
+ * <li>early: after the first move of both players</li>
+ * <li>mid: once a player released half the applications needed to win</li>
+ * <li>late: once a player is one release from the win</li>
+ * </ul>
+ * When a game ends before, the next seeds are tried.
+ */
+public class GameStages {
+    public static final MatchConfig CONFIG = MatchConfig.fromLeague(LeagueRules.fromIndex(4));
+    private static final int MAX_SEEDS_COUNT = 1000;
+    private static final int MAX_ACTIONS_COUNT = 2000;
+
+    //new rules on a copy of the position, so that their undo log starts there
+    public static Rules reach(String stage, long seed, GamePhase gamePhase) {
+        PlayoutPolicy policy = new PlayoutPolicy(CONFIG);
+        for (int i=0;i<MAX_SEEDS_COUNT;++i) {
+            Rules rules = new Rules(CONFIG, new GameState());
+            rules.init(seed + i, 2);
+            GameState state = rules.getState();
+            int step = 0;
+            while (!state.isGameOver() && step < MAX_ACTIONS_COUNT && !isReached(stage, state)) {
+                rules.performAction(state.getActivePlayer(), policy.choose(state, step++));
+                rules.nextPhase();
+            }
+            while (!state.isGameOver() && step < MAX_ACTIONS_COUNT && gamePhase != null && state.getGamePhase() != gamePhase) {
+                rules.performAction(state.getActivePlayer(), policy.choose(state, step++));
+                rules.nextPhase();
+            }
+            if (!state.isGameOver() && step < MAX_ACTIONS_COUNT) {
+                return new Rules(CONFIG, state.copy());
+            }
+        }
+        throw new IllegalStateException("No " + stage + " " + gamePhase + " position from seed " + seed);
+    }
+
+    private static boolean isReached(String stage, GameState state) {
+        int maxScore = 0;
+        for (PlayerState player : state.getPlayers()) {
+            maxScore = Math.max(maxScore, player.getScore());
+        }
+        switch (stage) {
+            case "early":
+                return state.getPlayer(1).getZoneId() >= 0;
+            case "mid":
+                return maxScore >= CONFIG.getApplicationsToWin() / 2;
+            case "late":
+                return maxScore >= CONFIG.getApplicationsToWin() - 1;
+            default:
+                throw new IllegalArgumentException("Unknown stage " + stage);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.codingame.game.benchmark;
+
+import com.codingame.game.Application;
+import com.codingame.game.rules.GameState;
+import com.codingame.game.rules.PlayerState;
+import com.codingame.game.rules.RulesListener;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Player level hot paths at a stage of a game ({@link GameStages}): checking every application for a release, and
+ * the end of turn discard and redraw, which reshuffles the discard pile whenever the draw pile runs out.
+ * Run with -prof gc for the allocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlayerBenchmark {
+    @Param({"early", "mid", "late"})
+    public String stage;
+
+    @Param({"1"})
+    public long seed;
+
+    private GameState state;
+    private PlayerState player;
+    private List<Application> applications;
+
+    @Setup
+    public void setUp() {
+        state = GameStages.reach(stage, seed, null).getState();
+        player = state.getActivePlayer();
+        applications = state.getApplications();
+    }
+
+    //sum of the technical debts to release every application (-1 for each one which cannot be)
+    @Benchmark
+    public int canBeReleased() {
+        int technicalDebts = 0;
+        for (Application application : applications) {
+            technicalDebts += application.canBeReleased(player, GameStages.CONFIG);
+        }
+        return technicalDebts;
+    }
+
+    //the player cycles through their deck, reshuffling it every few calls
+    @Benchmark
+    public int discardAndRedrawCards() {
+        player.discardAndRedrawCards(state.getRandom(), RulesListener.NONE);
+        return player.getDrawPileSize();
+    }
+}
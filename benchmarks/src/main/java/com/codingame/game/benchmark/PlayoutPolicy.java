@@ -0,0 +1,64 @@
+package com.codingame.game.benchmark;
+
+import com.codingame.game.Application;
+import com.codingame.game.Config;
+import com.codingame.game.MatchConfig;
+import com.codingame.game.action.ActionCode;
+import com.codingame.game.card.CardType;
+import com.codingame.game.rules.GameState;
+import com.codingame.game.rules.Pile;
+import com.codingame.game.rules.PlayerState;
+
+/**
+ * A cheap legal policy to walk through games, picking {@link ActionCode}s without allocating.
+ */
+public class PlayoutPolicy {
+    private final MatchConfig config;
+
+    public PlayoutPolicy(MatchConfig config) {
+        this.config = config;
+    }
+
+    //the step-th choice in a position: varying it gives different lines of play
+    public int choose(GameState state, int step) {
+        PlayerState player = state.getActivePlayer();
+        switch (state.getGamePhase()) {
+            case MOVE:
+                int zoneId = (player.getZoneId() + 1 + step % (Config.ZONES_COUNT - 1)) % Config.ZONES_COUNT;
+                return ActionCode.move(zoneId, zoneId);
+            case GIVE_CARD:
+                return ActionCode.give(getNonTechnicalDebtCardInHand(player, step));
+            case THROW_CARD:
+                return ActionCode.throwCard(getNonTechnicalDebtCardInHand(player, step));
+            case PLAY_CARD:
+                for (int type=0;type<CardType.BONUS.ordinal();++type) {
+                    CardType cardType = CardType.values()[(type + step) % CardType.BONUS.ordinal()];
+                    if (PlayerState.isSimpleActionCard(cardType) && player.getCardsCount(Pile.HAND, cardType) > 0) {
+                        return ActionCode.play(cardType.ordinal());
+                    }
+                }
+                return ActionCode.waitAction();
+            case RELEASE:
+                for (Application application : state.getApplications()) {
+                    int badActionsUsed = application.canBeReleased(player, config);
+                    if (badActionsUsed == 0 || (badActionsUsed > 0 && player.getScore() < config.getApplicationsToWin() - 1)) {
+                        return ActionCode.release(application.getId());
+                    }
+                }
+                return ActionCode.waitAction();
+            default:
+                return ActionCode.waitAction();
+        }
+    }
+
+    private int getNonTechnicalDebtCardInHand(PlayerState player, int step) {
+        int[] hand = player.getCards(Pile.HAND);
+        for (int type=0;type<CardType.TECHNICAL_DEBT.ordinal();++type) {
+            int cardType = (type + step) % CardType.TECHNICAL_DEBT.ordinal();
+            if (hand[cardType] > 0) {
+                return cardType;
+            }
+        }
+        throw new IllegalStateException("No card to give or throw");
+    }
+}
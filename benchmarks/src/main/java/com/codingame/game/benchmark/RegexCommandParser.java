@@ -0,0 +1,295 @@
+package com.codingame.game.benchmark;
+
+import com.codingame.game.*;
+import com.codingame.game.action.ActionCode;
+import com.codingame.game.card.CardType;
+import com.codingame.game.rules.Pile;
+import com.codingame.game.rules.PlayerState;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.lang.Math.abs;
+
+/**
+ * The former regular expressions based CommandManager.parseCommand, kept as the reference of CommandParserBenchmark.
+ */
+public class RegexCommandParser {
+    static final Pattern PLAYER_WAIT_PATTERN = Pattern.compile(
+            "^WAIT(?:\\s+(?<message>.*))?"
+    );
+
+    static final Pattern PLAYER_MOVE_PATTERN = Pattern.compile(
+            "^MOVE (?<zoneId>\\d+)(?:\\s+(?<message>.*))?"
+    );
+
+    static final Pattern PLAYER_ADVANCED_MOVE_PATTERN = Pattern.compile(
+            "^MOVE (?<zoneToMoveId>\\d+) (?<zoneToTakeCardId>\\d+)(?:\\s+(?<message>.*))?"
+    );
+
+    static final Pattern PLAYER_GIVE_PATTERN = Pattern.compile(
+            "^GIVE (?<cardType>\\d+)(?:\\s+(?<message>.*))?"
+    );
+
+    static final Pattern PLAYER_THROW_PATTERN = Pattern.compile(
+            "^THROW (?<cardType>\\d+)(?:\\s+(?<message>.*))?"
+    );
+
+    static final Pattern PLAYER_TRAINING_PATTERN = Pattern.compile(
+            "^TRAINING(?:\\s+(?<message>.*))?"
+    );
+
+    static final Pattern PLAYER_CODING_PATTERN = Pattern.compile(
+            "^CODING(?:\\s+(?<message>.*))?"
+    );
+
+    static final Pattern PLAYER_DAILY_ROUTINE_PATTERN = Pattern.compile(
+            "^DAILY_ROUTINE(?:\\s+(?<message>.*))?"
+    );
+
+    static final Pattern PLAYER_TASK_PRIORITIZATION_PATTERN = Pattern.compile(
+            "^TASK_PRIORITIZATION (?<cardTypeToThrow>\\d+) (?<cardTypeToTake>\\d+)(?:\\s+(?<message>.*))?"
+    );
+
+    static final Pattern PLAYER_ARCHITECTURE_STUDY_PATTERN = Pattern.compile(
+            "^ARCHITECTURE_STUDY(?:\\s+(?<message>.*))?"
+    );
+
+    static final Pattern PLAYER_CONTINUOUS_INTEGRATION_PATTERN = Pattern.compile(
+            "^CONTINUOUS_INTEGRATION (?<cardType>\\d+)(?:\\s+(?<message>.*))?"
+    );
+
+    static final Pattern PLAYER_CODE_REVIEW_PATTERN = Pattern.compile(
+            "^CODE_REVIEW(?:\\s+(?<message>.*))?"
+    );
+
+    static final Pattern PLAYER_REFACTORING_PATTERN = Pattern.compile(
+            "^REFACTORING(?:\\s+(?<message>.*))?"
+    );
+
+    static final Pattern PLAYER_RELEASE_PATTERN = Pattern.compile(
+            "^RELEASE (?<applicationId>\\d+)(?:\\s+(?<message>.*))?"
+    );
+
+    static final Pattern PLAYER_RANDOM_PATTERN = Pattern.compile(
+            "^RANDOM(?:\\s+(?<message>.*))?"
+    );
+
+    private String message;
+
+    public String getMessage() {
+        return message;
+    }
+
+    public int parse(String command, PlayerState player, GamePhase gamePhase, List<Application> applications, MatchConfig config) throws InvalidInputException, GameRuleException {
+        message = null;
+        Matcher match;
+
+        match = PLAYER_WAIT_PATTERN.matcher(command);
+        if (match.matches() && (gamePhase == GamePhase.RELEASE ||gamePhase == GamePhase.PLAY_CARD)) {
+            message = match.group("message");
+            return ActionCode.waitAction();
+        }
+
+        match = PLAYER_RANDOM_PATTERN.matcher(command);
+        if (match.matches()) {
+            message = match.group("message");
+            return ActionCode.randomAction();
+        }
+
+        match = PLAYER_ADVANCED_MOVE_PATTERN.matcher(command);
+        int dailyRoutinesCount = player.getPermanentDailyRoutineCardsCount();
+        if (match.matches() && gamePhase == GamePhase.MOVE && dailyRoutinesCount>0) {
+            int zoneToMoveId = Integer.parseInt(match.group("zoneToMoveId"));
+            if (zoneToMoveId < 0 || zoneToMoveId>=Config.ZONES_COUNT) {
+                throw new GameRuleException(command, "you can only move to a zone between 0 and 7");
+            }
+            if (zoneToMoveId == player.getZoneId()) {
+                throw new GameRuleException(command, String.format("you must move to another desk (you are already in desk %d", zoneToMoveId));
+            }
+            int zoneToTakeCardId = Integer.parseInt(match.group("zoneToTakeCardId"));
+            if (zoneToTakeCardId < 0 || zoneToTakeCardId>=Config.ZONES_COUNT) {
+                throw new GameRuleException(command, "you can only take a card from a zone between 0 and 7");
+            }
+            int distance = abs(zoneToMoveId - zoneToTakeCardId);
+            if (distance > dailyRoutinesCount) {
+                distance = abs(Config.ZONES_COUNT - distance);
+            }
+            if (distance <= dailyRoutinesCount) {
+                message = match.group("message");
+                return ActionCode.move(zoneToMoveId, zoneToTakeCardId);
+            }
+        }
+
+        match = PLAYER_MOVE_PATTERN.matcher(command);
+        if (match.matches() && gamePhase == GamePhase.MOVE) {
+            int zoneId = Integer.parseInt(match.group("zoneId"));
+            if (zoneId < 0 || zoneId>=Config.ZONES_COUNT) {
+                throw new GameRuleException(command, "you can only move to a zone between 0 and 7");
+            }
+            if (zoneId == player.getZoneId()) {
+                throw new GameRuleException(command, String.format("you must move to another desk (you are already in desk %d", zoneId));
+            }
+            message = match.group("message");
+            return ActionCode.move(zoneId, zoneId);
+        }
+
+        match = PLAYER_THROW_PATTERN.matcher(command);
+        if (match.matches() && gamePhase == GamePhase.THROW_CARD) {
+            int cardTypeId = Integer.parseInt(match.group("cardType"));
+            if (cardTypeId < 0 || cardTypeId > CardType.TECHNICAL_DEBT.ordinal()) {
+                throw new GameRuleException(command, "you can only throw a card type between 0 and 8");
+            }
+            if (cardTypeId == CardType.TECHNICAL_DEBT.ordinal()) {
+                throw new GameRuleException(command, "you cannot throw a technical debt card");
+            }
+            CardType cardType = CardType.values()[cardTypeId];
+            if (player.getCardsCount(Pile.HAND, cardType)==0) {
+                throw new GameRuleException(command, String.format("you do not have a card of type %s to throw away", cardType));
+            }
+            message = match.group("message");
+            return ActionCode.throwCard(cardType.ordinal());
+        }
+
+        match = PLAYER_GIVE_PATTERN.matcher(command);
+        if (match.matches() && gamePhase == GamePhase.GIVE_CARD) {
+            int cardTypeId = Integer.parseInt(match.group("cardType"));
+            if (cardTypeId < 0 || cardTypeId > CardType.TECHNICAL_DEBT.ordinal()) {
+                throw new GameRuleException(command, "you can only give a card type between 0 and 8");
+            }
+            if (cardTypeId == CardType.TECHNICAL_DEBT.ordinal()) {
+                throw new GameRuleException(command, "you cannot give a technical debt card");
+            }
+            CardType cardType = CardType.values()[cardTypeId];
+            if (player.getCardsCount(Pile.HAND, cardType)==0) {
+                throw new GameRuleException(command, String.format("you do not have a card of type %s to give", cardType));
+            }
+            message = match.group("message");
+            return ActionCode.give(cardType.ordinal());
+        }
+
+        match = PLAYER_TRAINING_PATTERN.matcher(command);
+        if (match.matches() && gamePhase == GamePhase.PLAY_CARD) {
+            if (player.getCardsCount(Pile.HAND, CardType.TRAINING)==0) {
+                throw new GameRuleException(command, String.format("you do not have any %s card in hand", CardType.TRAINING));
+            }
+            message = match.group("message");
+            return ActionCode.play(CardType.TRAINING.ordinal());
+        }
+
+        match = PLAYER_CODING_PATTERN.matcher(command);
+        if (match.matches() && gamePhase == GamePhase.PLAY_CARD) {
+            if (player.getCardsCount(Pile.HAND, CardType.CODING)==0) {
+                throw new GameRuleException(command, String.format("you do not have any %s card in hand", CardType.CODING));
+            }
+            message = match.group("message");
+            return ActionCode.play(CardType.CODING.ordinal());
+        }
+
+        match = PLAYER_DAILY_ROUTINE_PATTERN.matcher(command);
+        if (match.matches() && gamePhase == GamePhase.PLAY_CARD) {
+            if (player.getCardsCount(Pile.HAND, CardType.DAILY_ROUTINE)==0) {
+                throw new GameRuleException(command, String.format("you do not have any %s card in hand", CardType.DAILY_ROUTINE));
+            }
+            message = match.group("message");
+            return ActionCode.play(CardType.DAILY_ROUTINE.ordinal());
+        }
+
+        match = PLAYER_TASK_PRIORITIZATION_PATTERN.matcher(command);
+        if (match.matches() && gamePhase == GamePhase.PLAY_CARD) {
+            if (player.getCardsCount(Pile.HAND, CardType.TASK_PRIORITIZATION)==0) {
+                throw new GameRuleException(command, String.format("you do not have any %s card in hand", CardType.TASK_PRIORITIZATION));
+            }
+            int cardTypeToThrow = Integer.parseInt(match.group("cardTypeToThrow"));
+            if (cardTypeToThrow < 0 || cardTypeToThrow > CardType.TECHNICAL_DEBT.ordinal()) {
+                throw new GameRuleException(command, "you can only deprioritize a card type between 0 and 8");
+            }
+            if (cardTypeToThrow == CardType.TECHNICAL_DEBT.ordinal()) {
+                throw new GameRuleException(command, "you cannot deprioritize a technical debt card");
+            }
+            CardType cardType = CardType.values()[cardTypeToThrow];
+            int cardsCount = player.getCardsCount(Pile.HAND, cardType);
+            if (cardsCount==0 || (cardsCount==1 && cardType.equals(CardType.TASK_PRIORITIZATION))) {
+                throw new GameRuleException(command, String.format("you do not have a card of type %s to deprioritize", cardType));
+            }
+            int cardTypeToTake = Integer.parseInt(match.group("cardTypeToTake"));
+            if (cardTypeToTake < 0 || cardTypeToTake > CardType.TECHNICAL_DEBT.ordinal()) {
+                throw new GameRuleException(command, "you can only prioritize a card type between 0 and 8");
+            }
+            message = match.group("message");
+            return ActionCode.play(CardType.TASK_PRIORITIZATION.ordinal(), cardTypeToThrow, cardTypeToTake);
+        }
+
+        match = PLAYER_ARCHITECTURE_STUDY_PATTERN.matcher(command);
+        if (match.matches() && gamePhase == GamePhase.PLAY_CARD) {
+            if (player.getCardsCount(Pile.HAND, CardType.ARCHITECTURE_STUDY)==0) {
+                throw new GameRuleException(command, String.format("you do not have any %s card in hand", CardType.ARCHITECTURE_STUDY));
+            }
+            message = match.group("message");
+            return ActionCode.play(CardType.ARCHITECTURE_STUDY.ordinal());
+        }
+
+        match = PLAYER_CONTINUOUS_INTEGRATION_PATTERN.matcher(command);
+        if (match.matches() && gamePhase == GamePhase.PLAY_CARD) {
+            if (player.getCardsCount(Pile.HAND, CardType.CONTINUOUS_INTEGRATION)==0) {
+                throw new GameRuleException(command, String.format("you do not have any %s card in hand", CardType.CONTINUOUS_INTEGRATION));
+            }
+            int cardTypeId = Integer.parseInt(match.group("cardType"));
+            if (cardTypeId < 0 || cardTypeId > CardType.TECHNICAL_DEBT.ordinal()) {
+                throw new GameRuleException(command, "you can only automate a card type between 0 and 8");
+            }
+            if (cardTypeId == CardType.TECHNICAL_DEBT.ordinal()) {
+                throw new GameRuleException(command, "you cannot automate a technical debt card");
+            }
+            CardType cardType = CardType.values()[cardTypeId];
+            int cardsCount = player.getCardsCount(Pile.HAND, cardType);
+            if (cardsCount==0 || (cardsCount==1 && cardType.equals(CardType.CONTINUOUS_INTEGRATION))) {
+                throw new GameRuleException(command, String.format("you do not have a card of type %s to automate", cardType));
+            }
+            message = match.group("message");
+            return ActionCode.play(CardType.CONTINUOUS_INTEGRATION.ordinal(), cardType.ordinal());
+        }
+
+        match = PLAYER_CODE_REVIEW_PATTERN.matcher(command);
+        if (match.matches() && gamePhase == GamePhase.PLAY_CARD) {
+            if (player.getCardsCount(Pile.HAND, CardType.CODE_REVIEW)==0) {
+                throw new GameRuleException(command, String.format("you do not have any %s card in hand", CardType.CODE_REVIEW));
+            }
+            message = match.group("message");
+            return ActionCode.play(CardType.CODE_REVIEW.ordinal());
+        }
+
+        match = PLAYER_REFACTORING_PATTERN.matcher(command);
+        if (match.matches() && gamePhase == GamePhase.PLAY_CARD) {
+            if (player.getCardsCount(Pile.HAND, CardType.REFACTORING)==0) {
+                throw new GameRuleException(command, String.format("you do not have any %s card in hand", CardType.REFACTORING));
+            }
+            message = match.group("message");
+            return ActionCode.play(CardType.REFACTORING.ordinal());
+        }
+
+        match = PLAYER_RELEASE_PATTERN.matcher(command);
+        if (match.matches() && gamePhase == GamePhase.RELEASE) {
+            int applicationId = Integer.parseInt(match.group("applicationId"));
+            if (applications.stream().filter(c -> c.getId()==applicationId).count()==0) {
+                throw new GameRuleException(command, String.format("application %d is not in play", applicationId));
+            }
+            Application application = applications.stream().filter(obj -> obj.getId()==applicationId).findFirst().get();
+            int badActionsUsed = application.canBeReleased(player, config);
+            if (badActionsUsed < 0) {
+                //cannot release => invalid input!!!!
+                throw new GameRuleException(command, "you do not have enough cards to release this application");
+            }
+            if (player.getScore()==config.getApplicationsToWin()-1 && badActionsUsed>0) {
+                //cannot release => invalid input!!!!
+                throw new GameRuleException(command, "you do not have enough cards to release this application. The last one must be done without any penalty!");
+            }
+
+            message = match.group("message");
+            return ActionCode.release(applicationId);
+        }
+
+        throw new InvalidInputException(Game.getExpected(gamePhase), command);
+    }
+}
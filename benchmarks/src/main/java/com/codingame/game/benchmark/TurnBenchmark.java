@@ -0,0 +1,78 @@
+package com.codingame.game.benchmark;
+
+import com.codingame.game.CommandParser;
+import com.codingame.game.GamePhase;
+import com.codingame.game.GameRuleException;
+import com.codingame.game.InvalidInputException;
+import com.codingame.game.action.ActionCode;
+import com.codingame.game.action.RandomActionFactory;
+import com.codingame.game.rules.GameState;
+import com.codingame.game.rules.Rules;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the referee does for every turn of a bot, through the rules the engine classes delegate to: the frame input
+ * (Game.getCurrentFrameInfoFor), the command parsing (CommandManager.parseCommand), the random action and the game
+ * update (Game.performGameUpdate then the next phase, undone after). The position is taken at a stage of a game
+ * ({@link GameStages}) in the given phase; run with -prof gc for the allocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TurnBenchmark {
+    @Param({"early", "mid", "late"})
+    public String stage;
+
+    @Param({"MOVE", "GIVE_CARD", "THROW_CARD", "PLAY_CARD", "RELEASE"})
+    public GamePhase gamePhase;
+
+    @Param({"1"})
+    public long seed;
+
+    private final CommandParser commandParser = new CommandParser();
+    private final RandomActionFactory randomActionFactory = new RandomActionFactory();
+    private Rules rules;
+    private GameState state;
+    private int action;
+    private String command;
+
+    @Setup
+    public void setUp() {
+        rules = GameStages.reach(stage, seed, gamePhase);
+        state = rules.getState();
+        action = new PlayoutPolicy(GameStages.CONFIG).choose(state, 0);
+        command = ActionCode.toString(action);
+    }
+
+    @Benchmark
+    public List<String> frameInfo() {
+        return rules.getCurrentFrameInfoFor(state.getActivePlayer(), gamePhase);
+    }
+
+    @Benchmark
+    public int parseCommand() throws InvalidInputException, GameRuleException {
+        return commandParser.parse(command, state.getActivePlayer(), gamePhase, state.getApplications(), GameStages.CONFIG);
+    }
+
+    //draws from the state random, which is never set back
+    @Benchmark
+    public int randomAction() {
+        return randomActionFactory.createAction(gamePhase, state.getActivePlayer(), state.getApplications(),
+                GameStages.CONFIG, state.getRandom());
+    }
+
+    //includes the undo, see ApplyUndoBenchmark for its own cost
+    @Benchmark
+    public int gameUpdate() {
+        rules.apply(action);
+        int activePlayerId = state.getActivePlayerId();
+        rules.undo();
+        return activePlayerId;
+    }
+}
@@ -1,7 +1,6 @@
 package com.codingame.game;
 
-import com.codingame.game.card.Card;
-import com.codingame.game.card.CardType;
+import com.codingame.game.rules.PlayerState;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 
@@ -32,30 +31,16 @@ public class Application {
         return id;
     }
 
+    public int getResourcesNeeded(int zoneId) {
+        return resourcesNeeded[zoneId];
+    }
+
     //returns the number of technical debt cards to draw (-1 = cannot release)
-    public int canBeReleased(Player player) {
-        List<Card> playerHand = player.getCardsInHand();
+    public int canBeReleased(PlayerState player, MatchConfig config) {
         int technicalDebtUsed = 0;
+        //the hand and the automated cards are already counted by the player
+        int[] availableResources = player.getReleaseResources();
         int missingResources = 0;
-        int availableBadActions = 0;
-        int availableBonuses = 0;
-        int[] availableResources = new int[Config.ZONES_COUNT];
-        for (Card card : playerHand) {
-            availableBadActions += card.getBadActionCount();
-            availableBonuses += card.getBonusActionCount();
-            if (card.isActionCard()) {
-                availableResources[card.getCardType().ordinal()] += card.getGoodActionCount();
-            }
-        }
-
-        //use also automated cards
-        for (Card card : player.getAutomatedCards()) {
-            availableBadActions += card.getBadActionCount();
-            availableBonuses += card.getBonusActionCount();
-            if (card.isActionCard()) {
-                availableResources[card.getCardType().ordinal()] += card.getGoodActionCount();
-            }
-        }
 
         //check resources
         for (int i=0;i<availableResources.length;++i) {
@@ -63,10 +48,10 @@ public class Application {
                 missingResources += resourcesNeeded[i] - availableResources[i];
             }
         }
-        missingResources -= availableBonuses;
+        missingResources -= player.getReleaseBonuses();
 
         if (missingResources>0) {
-            if (player.getScore()<Config.APPLICATIONS_TO_WIN-1 && missingResources<=availableBadActions) {
+            if (player.getScore()<config.getApplicationsToWin()-1 && missingResources<=player.getReleaseBadActions()) {
                     technicalDebtUsed = missingResources;
             }
             else {
@@ -70,5 +70,10 @@ public class ApplicationFactory {
         return createApplication(random, SMALL);
     }
 
+    //the application ids are the indexes of the entries, below this count
+    public int getApplicationsCount() {
+        return applicationsList.length;
+    }
+
 
 }
@@ -0,0 +1,342 @@
+package com.codingame.game;
+
+import com.codingame.game.action.ActionCode;
+import com.codingame.game.card.CardType;
+import com.codingame.game.rules.Pile;
+import com.codingame.game.rules.PlayerState;
+import com.google.inject.Singleton;
+
+import java.util.List;
+
+import static java.lang.Math.abs;
+
+/**
+ * Reads a bot command in a single pass: the verb is recognized from its first characters, then its integer arguments
+ * and the message are read in place. It accepts the same commands, with the same errors, as the regular expressions
+ * it replaces ("VERB( \d+)*(\s+message)?", the message not spanning several lines).
+ */
+@Singleton
+public class CommandParser {
+    private enum Verb {
+        WAIT, RANDOM, MOVE, GIVE, THROW, RELEASE,
+        TRAINING(CardType.TRAINING),
+        CODING(CardType.CODING),
+        DAILY_ROUTINE(CardType.DAILY_ROUTINE),
+        TASK_PRIORITIZATION(CardType.TASK_PRIORITIZATION),
+        ARCHITECTURE_STUDY(CardType.ARCHITECTURE_STUDY),
+        CONTINUOUS_INTEGRATION(CardType.CONTINUOUS_INTEGRATION),
+        CODE_REVIEW(CardType.CODE_REVIEW),
+        REFACTORING(CardType.REFACTORING);
+
+        //the card played by this verb
+        final CardType cardType;
+
+        Verb() {
+            this(null);
+        }
+
+        Verb(CardType cardType) {
+            this.cardType = cardType;
+        }
+    }
+
+    private static final int NOT_MATCHED = ActionCode.noAction();
+    private static final int MAX_ARGUMENTS = 2;
+
+    private String command;
+    private Verb verb;
+    //bounds of the digits of each argument, they are only converted once the whole command matched
+    private final int[] argumentStarts = new int[MAX_ARGUMENTS];
+    private final int[] argumentEnds = new int[MAX_ARGUMENTS];
+    private String message;
+
+    //message of the last parsed command, null if there was none
+    public String getMessage() {
+        return message;
+    }
+
+    //returns the ActionCode of the command (RANDOM is left to the caller)
+    public int parse(String command, PlayerState player, GamePhase gamePhase, List<Application> applications, MatchConfig config) throws InvalidInputException, GameRuleException {
+        this.command = command;
+        message = null;
+        verb = readVerb(command);
+        int action = verb == null ? NOT_MATCHED : parseVerb(player, gamePhase, applications, config);
+        if (action == NOT_MATCHED) {
+            message = null;
+            throw new InvalidInputException(Game.getExpected(gamePhase), command);
+        }
+        return action;
+    }
+
+    private static Verb readVerb(String command) {
+        //the shortest verbs have 4 characters
+        if (command.length() < 4) {
+            return null;
+        }
+        Verb verb;
+        switch (command.charAt(0)) {
+            case 'W':
+                verb = Verb.WAIT;
+                break;
+            case 'M':
+                verb = Verb.MOVE;
+                break;
+            case 'G':
+                verb = Verb.GIVE;
+                break;
+            case 'D':
+                verb = Verb.DAILY_ROUTINE;
+                break;
+            case 'A':
+                verb = Verb.ARCHITECTURE_STUDY;
+                break;
+            case 'T':
+                verb = command.charAt(1) == 'H' ? Verb.THROW : command.charAt(1) == 'R' ? Verb.TRAINING : Verb.TASK_PRIORITIZATION;
+                break;
+            case 'C':
+                if (command.charAt(2) == 'N') {
+                    verb = Verb.CONTINUOUS_INTEGRATION;
+                } else {
+                    verb = command.charAt(3) == 'I' ? Verb.CODING : Verb.CODE_REVIEW;
+                }
+                break;
+            case 'R':
+                verb = command.charAt(2) == 'N' ? Verb.RANDOM : command.charAt(2) == 'F' ? Verb.REFACTORING : Verb.RELEASE;
+                break;
+            default:
+                return null;
+        }
+        return command.startsWith(verb.name()) ? verb : null;
+    }
+
+    private int parseVerb(PlayerState player, GamePhase gamePhase, List<Application> applications, MatchConfig config) throws GameRuleException {
+        switch (verb) {
+            case WAIT:
+                if ((gamePhase == GamePhase.RELEASE || gamePhase == GamePhase.PLAY_CARD) && readArguments(0)) {
+                    return ActionCode.waitAction();
+                }
+                return NOT_MATCHED;
+            case RANDOM:
+                return readArguments(0) ? ActionCode.randomAction() : NOT_MATCHED;
+            case MOVE:
+                return gamePhase == GamePhase.MOVE ? parseMove(player) : NOT_MATCHED;
+            case THROW:
+                if (gamePhase == GamePhase.THROW_CARD && readArguments(1)) {
+                    return ActionCode.throwCard(parseHandCard(player, "throw", "to throw away"));
+                }
+                return NOT_MATCHED;
+            case GIVE:
+                if (gamePhase == GamePhase.GIVE_CARD && readArguments(1)) {
+                    return ActionCode.give(parseHandCard(player, "give", "to give"));
+                }
+                return NOT_MATCHED;
+            case TASK_PRIORITIZATION:
+                if (gamePhase == GamePhase.PLAY_CARD && readArguments(2)) {
+                    return parseTaskPrioritization(player);
+                }
+                return NOT_MATCHED;
+            case CONTINUOUS_INTEGRATION:
+                if (gamePhase == GamePhase.PLAY_CARD && readArguments(1)) {
+                    return parseContinuousIntegration(player);
+                }
+                return NOT_MATCHED;
+            case RELEASE:
+                if (gamePhase == GamePhase.RELEASE && readArguments(1)) {
+                    return parseRelease(player, applications, config);
+                }
+                return NOT_MATCHED;
+            default:
+                //the other verbs play a card without argument
+                if (gamePhase == GamePhase.PLAY_CARD && readArguments(0)) {
+                    CardType cardType = verb.cardType;
+                    if (player.getCardsCount(Pile.HAND, cardType)==0) {
+                        throw new GameRuleException(command, String.format("you do not have any %s card in hand", cardType));
+                    }
+                    return ActionCode.play(cardType.ordinal());
+                }
+                return NOT_MATCHED;
+        }
+    }
+
+    private int parseMove(PlayerState player) throws GameRuleException {
+        int dailyRoutinesCount = player.getPermanentDailyRoutineCardsCount();
+        if (dailyRoutinesCount>0 && readArguments(2)) {
+            int zoneToMoveId = getArgument(0);
+            if (zoneToMoveId < 0 || zoneToMoveId>=Config.ZONES_COUNT) {
+                throw new GameRuleException(command, "you can only move to a zone between 0 and 7");
+            }
+            if (zoneToMoveId == player.getZoneId()) {
+                throw new GameRuleException(command, String.format("you must move to another desk (you are already in desk %d", zoneToMoveId));
+            }
+            int zoneToTakeCardId = getArgument(1);
+            if (zoneToTakeCardId < 0 || zoneToTakeCardId>=Config.ZONES_COUNT) {
+                throw new GameRuleException(command, "you can only take a card from a zone between 0 and 7");
+            }
+            int distance = abs(zoneToMoveId - zoneToTakeCardId);
+            if (distance > dailyRoutinesCount) {
+                distance = abs(Config.ZONES_COUNT - distance);
+            }
+            if (distance <= dailyRoutinesCount) {
+                return ActionCode.move(zoneToMoveId, zoneToTakeCardId);
+            }
+        }
+
+        //a too far second zone is then read as the message of a simple move
+        if (!readArguments(1)) {
+            return NOT_MATCHED;
+        }
+        int zoneId = getArgument(0);
+        if (zoneId < 0 || zoneId>=Config.ZONES_COUNT) {
+            throw new GameRuleException(command, "you can only move to a zone between 0 and 7");
+        }
+        if (zoneId == player.getZoneId()) {
+            throw new GameRuleException(command, String.format("you must move to another desk (you are already in desk %d", zoneId));
+        }
+        return ActionCode.move(zoneId, zoneId);
+    }
+
+    //card type to throw or to give
+    private int parseHandCard(PlayerState player, String action, String purpose) throws GameRuleException {
+        int cardTypeId = getArgument(0);
+        if (cardTypeId < 0 || cardTypeId > CardType.TECHNICAL_DEBT.ordinal()) {
+            throw new GameRuleException(command, "you can only " + action + " a card type between 0 and 8");
+        }
+        if (cardTypeId == CardType.TECHNICAL_DEBT.ordinal()) {
+            throw new GameRuleException(command, "you cannot " + action + " a technical debt card");
+        }
+        CardType cardType = CardType.values()[cardTypeId];
+        if (player.getCardsCount(Pile.HAND, cardType)==0) {
+            throw new GameRuleException(command, String.format("you do not have a card of type %s %s", cardType, purpose));
+        }
+        return cardTypeId;
+    }
+
+    private int parseTaskPrioritization(PlayerState player) throws GameRuleException {
+        if (player.getCardsCount(Pile.HAND, CardType.TASK_PRIORITIZATION)==0) {
+            throw new GameRuleException(command, String.format("you do not have any %s card in hand", CardType.TASK_PRIORITIZATION));
+        }
+        int cardTypeToThrow = getArgument(0);
+        if (cardTypeToThrow < 0 || cardTypeToThrow > CardType.TECHNICAL_DEBT.ordinal()) {
+            throw new GameRuleException(command, "you can only deprioritize a card type between 0 and 8");
+        }
+        if (cardTypeToThrow == CardType.TECHNICAL_DEBT.ordinal()) {
+            throw new GameRuleException(command, "you cannot deprioritize a technical debt card");
+        }
+        CardType cardType = CardType.values()[cardTypeToThrow];
+        int cardsCount = player.getCardsCount(Pile.HAND, cardType);
+        if (cardsCount==0 || (cardsCount==1 && cardType.equals(CardType.TASK_PRIORITIZATION))) {
+            throw new GameRuleException(command, String.format("you do not have a card of type %s to deprioritize", cardType));
+        }
+        int cardTypeToTake = getArgument(1);
+        if (cardTypeToTake < 0 || cardTypeToTake > CardType.TECHNICAL_DEBT.ordinal()) {
+            throw new GameRuleException(command, "you can only prioritize a card type between 0 and 8");
+        }
+        return ActionCode.play(CardType.TASK_PRIORITIZATION.ordinal(), cardTypeToThrow, cardTypeToTake);
+    }
+
+    private int parseContinuousIntegration(PlayerState player) throws GameRuleException {
+        if (player.getCardsCount(Pile.HAND, CardType.CONTINUOUS_INTEGRATION)==0) {
+            throw new GameRuleException(command, String.format("you do not have any %s card in hand", CardType.CONTINUOUS_INTEGRATION));
+        }
+        int cardTypeId = getArgument(0);
+        if (cardTypeId < 0 || cardTypeId > CardType.TECHNICAL_DEBT.ordinal()) {
+            throw new GameRuleException(command, "you can only automate a card type between 0 and 8");
+        }
+        if (cardTypeId == CardType.TECHNICAL_DEBT.ordinal()) {
+            throw new GameRuleException(command, "you cannot automate a technical debt card");
+        }
+        CardType cardType = CardType.values()[cardTypeId];
+        int cardsCount = player.getCardsCount(Pile.HAND, cardType);
+        if (cardsCount==0 || (cardsCount==1 && cardType.equals(CardType.CONTINUOUS_INTEGRATION))) {
+            throw new GameRuleException(command, String.format("you do not have a card of type %s to automate", cardType));
+        }
+        return ActionCode.play(CardType.CONTINUOUS_INTEGRATION.ordinal(), cardTypeId);
+    }
+
+    private int parseRelease(PlayerState player, List<Application> applications, MatchConfig config) throws GameRuleException {
+        int applicationId = getArgument(0);
+        Application application = null;
+        for (int i=0;i<applications.size();++i) {
+            if (applications.get(i).getId()==applicationId) {
+                application = applications.get(i);
+                break;
+            }
+        }
+        if (application == null) {
+            throw new GameRuleException(command, String.format("application %d is not in play", applicationId));
+        }
+        int badActionsUsed = application.canBeReleased(player, config);
+        if (badActionsUsed < 0) {
+            //cannot release => invalid input!!!!
+            throw new GameRuleException(command, "you do not have enough cards to release this application");
+        }
+        if (player.getScore()==config.getApplicationsToWin()-1 && badActionsUsed>0) {
+            //cannot release => invalid input!!!!
+            throw new GameRuleException(command, "you do not have enough cards to release this application. The last one must be done without any penalty!");
+        }
+        return ActionCode.release(applicationId);
+    }
+
+    //reads " <digits>" count times after the verb, then the optional message: false if the command does not have this shape
+    private boolean readArguments(int count) {
+        int position = verb.name().length();
+        for (int i=0;i<count;++i) {
+            if (position >= command.length() || command.charAt(position) != ' ') {
+                return false;
+            }
+            position++;
+            argumentStarts[i] = position;
+            while (position < command.length() && command.charAt(position) >= '0' && command.charAt(position) <= '9') {
+                position++;
+            }
+            if (position == argumentStarts[i]) {
+                return false;
+            }
+            argumentEnds[i] = position;
+        }
+        return readMessage(position);
+    }
+
+    //nothing, or whitespaces followed by a message on a single line
+    private boolean readMessage(int position) {
+        message = null;
+        if (position == command.length()) {
+            return true;
+        }
+        if (!isWhitespace(command.charAt(position))) {
+            return false;
+        }
+        while (position < command.length() && isWhitespace(command.charAt(position))) {
+            position++;
+        }
+        for (int i=position;i<command.length();++i) {
+            if (isLineTerminator(command.charAt(i))) {
+                return false;
+            }
+        }
+        message = command.substring(position);
+        return true;
+    }
+
+    private int getArgument(int index) {
+        int start = argumentStarts[index];
+        int end = argumentEnds[index];
+        if (end - start > 9) {
+            //may not fit in an int: let Integer report it
+            return Integer.parseInt(command.substring(start, end));
+        }
+        int value = 0;
+        for (int i=start;i<end;++i) {
+            value = value * 10 + command.charAt(i) - '0';
+        }
+        return value;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
@@ -1,57 +1,60 @@
 package com.codingame.game;
 
-import com.codingame.game.action.*;
-
-import java.util.*;
-import java.util.stream.Collectors;
-
 import com.codingame.game.card.*;
+import com.codingame.game.rules.FrameInputEncoder;
+import com.codingame.game.rules.GameState;
+import com.codingame.game.rules.Pile;
+import com.codingame.game.rules.PlayerState;
+import com.codingame.game.rules.Rules;
+import com.codingame.game.rules.RulesListener;
 import com.codingame.gameengine.core.MultiplayerGameManager;
 import com.codingame.view.View;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
-import static java.lang.Math.abs;
+import java.util.*;
+import java.util.stream.Collectors;
 
+/**
+ * Binds the headless {@link Rules} to the game engine: rules events are forwarded to the view and to the game summary.
+ */
 @Singleton
-public class Game {
+public class Game implements RulesListener {
     @Inject private MultiplayerGameManager<Player> gameManager;
     @Inject private GameSummaryManager gameSummaryManager;
-    @Inject private Game game;
     @Inject private View view;
-    @Inject private ApplicationFactory applicationFactory;
-    private Random random;
+    private GameState state;
+    private Rules rules;
+    //what each player was sent, for the delta input
+    private FrameInputEncoder[] inputEncoders;
+    //card ids are allocated per match, so several matches can run in the same JVM
+    private int nextCardId;
+    //the card objects displayed by the view, kept in line with the board of the rules state
     private Zone[] zones;
-    private List<Application> applications;
-    private boolean lastTurn;
-    private static int nextCardId = 0;
-    private static Stack<BonusCard> bonusCardsPool;
-    private static Stack<TechnicalDebtCard> technicalDebtCardsPool;
-    public static int getNextCardId() { return nextCardId++; }
-
-    public ActionCard CreateNewActionCard(CardType cardType) {
-        ActionCard card = new ActionCard(Game.getNextCardId(), cardType);
-        view.addCard(card);
-        return card;
-    }
-
-    public BonusCard CreateNewBonusCard() {
-        BonusCard card = new BonusCard(Game.getNextCardId());
-        view.addCard(card);
-        return card;
-    }
-
-    public TechnicalDebtCard CreateNewTechnicalDebtCard() {
-        TechnicalDebtCard card = new TechnicalDebtCard(Game.getNextCardId());
+    private Stack<Card> bonusCardsPool;
+    private Stack<Card> technicalDebtCardsPool;
+    //card moved by the last onCardMoved event, which the next events are about
+    private Card movedCard;
+    private int getNextCardId() { return nextCardId++; }
+
+    private Card createNewCard(CardType cardType) {
+        Card card;
+        if (cardType == CardType.BONUS) {
+            card = new BonusCard(getNextCardId());
+        } else if (cardType == CardType.TECHNICAL_DEBT) {
+            card = new TechnicalDebtCard(getNextCardId());
+        } else {
+            card = new ActionCard(getNextCardId(), cardType);
+        }
         view.addCard(card);
         return card;
     }
 
-    public Stack<BonusCard> getBonusCardsPool() {
+    public Stack<Card> getBonusCardsPool() {
         return bonusCardsPool;
     }
 
-    public Stack<TechnicalDebtCard> getTechnicalDebtCardsPool() {
+    public Stack<Card> getTechnicalDebtCardsPool() {
         return technicalDebtCardsPool;
     }
 
@@ -59,44 +62,29 @@ public class Game {
         return zones;
     }
 
-    public void init(long seed) {
+    public void init(long seed, MatchConfig config) {
         String state = gameManager.getGameParameters().getProperty("state");
         if (state != null && System.getProperty("allow.config.override") != null) {
             initGameFromState(state);
         }
 
-        lastTurn = false;
-        random = new Random(seed);
-        //create board & the action cards
+        nextCardId = 0;
         zones = new Zone[Config.ZONES_COUNT];
         for (int zoneId=0;zoneId<zones.length;++zoneId) {
             zones[zoneId] = new Zone(zoneId);
-            for(int i=0;i<Config.CARDS_PER_ZONE;++i) {
-                zones[zoneId].returnCard(CreateNewActionCard(CardType.values()[zoneId]));
-            }
-        }
-
-        //create applications
-        applications = new ArrayList<>();
-        for (int i=0;i<Config.SMALL_APPLICATIONS_COUNT;++i) {
-            applications.add(applicationFactory.createSmallApplication(random));
-        }
-        for (int i=0;i<Config.BIG_APPLICATIONS_COUNT;++i) {
-            applications.add(applicationFactory.createBigApplication(random));
         }
-
         bonusCardsPool = new Stack<>();
         technicalDebtCardsPool = new Stack<>();
-        for (int i=0;i<36;++i) {
-            bonusCardsPool.push(CreateNewBonusCard());
-        }
-        for (int i=0;i<100;++i) {
-            technicalDebtCardsPool.push(CreateNewTechnicalDebtCard());
-        }
 
-        //initialize players (and their cards)
+        this.state = new GameState();
+        rules = new Rules(config, this.state, this);
+        rules.init(seed, gameManager.getPlayerCount());
         for(Player player : gameManager.getActivePlayers()) {
-            player.init(random);
+            player.setState(this.state.getPlayer(player.getIndex()));
+        }
+        inputEncoders = new FrameInputEncoder[gameManager.getPlayerCount()];
+        for (int i=0;i<inputEncoders.length;++i) {
+            inputEncoders[i] = new FrameInputEncoder();
         }
 
         view.init();
@@ -105,30 +93,32 @@ public class Game {
         view.commitAll(0);
     }
 
+    public MatchConfig getConfig() {
+        return rules.getConfig();
+    }
+
+    public GameState getState() {
+        return state;
+    }
+
     public Random getRandom() {
-        return random;
+        return state.getRandom();
     }
 
     public boolean isLastTurn() {
-        return lastTurn;
+        return state.isLastTurn();
     }
 
-    private void initGameFromState(String state) {
-        //TODO: understand what it does and code it if we need it
+    public GamePhase getGamePhase() {
+        return state.getGamePhase();
     }
 
-    public static BonusCard getNextBonusCard() {
-        if (bonusCardsPool.empty()) {
-            return null;
-        }
-        return bonusCardsPool.pop();
+    public int getActivePlayerId() {
+        return state.getActivePlayerId();
     }
 
-    public static TechnicalDebtCard getNextTechnicalDebtCard() {
-        if (technicalDebtCardsPool.empty()) {
-            return null;
-        }
-        return technicalDebtCardsPool.pop();
+    private void initGameFromState(String state) {
+        //TODO: understand what it does and code it if we need it
     }
 
     public static String getExpected(GamePhase gamePhase) {
@@ -161,7 +151,8 @@ public class Game {
             return true;
         }
 
-        return false;
+        // last turn has been played
+        return state.isGameOver();
         //TODO: the game isn't over if a player can still improve its rank
         //return gameManager.getActivePlayers().stream().noneMatch(this::canImproveRanking);
     }
@@ -188,620 +179,305 @@ public class Game {
 
         view.startOfTurn();
         view.setPlayerMessage(player);
-        if (player.getAction().isMove()) {
-            move(player, (MoveAction) player.getAction());
-        }
-        else if (player.getAction().isGive()) {
-            giveCard(player, (GiveAction) player.getAction());
-        }
-        else if (player.getAction().isPlay()) {
-            playCard(player, (PlayAction) player.getAction());
-        }
-        else if (player.getAction().isThrow()) {
-            throwCard(player, (ThrowAction) player.getAction());
-        }
-        else if (player.getAction().isRelease()) {
-            release(player, (ReleaseAction) player.getAction());
-        }
-        else if (player.getAction().isWait()) {
-            gameSummaryManager.addWait(player);
-            player.setPlaysLeft(0);
-        }
+        rules.performAction(player.getState(), player.getAction());
 
         // update view
         view.endOfTurn();
     }
 
-    private void playCard(Player player, PlayAction action) {
-        switch (action.getActionCardType()) {
-            case TRAINING:
-                train(player);
-                break;
-            case CODING:
-                coding(player);
-                break;
-            case DAILY_ROUTINE:
-                dailyRoutine(player);
-                break;
-            case TASK_PRIORITIZATION:
-                taskPrioritization(player, action);
-                break;
-            case ARCHITECTURE_STUDY:
-                architectureStudy(player);
-                break;
-            case CONTINUOUS_INTEGRATION:
-                continuousIntegration(player, action);
-                break;
-            case CODE_REVIEW:
-                codeReview(player);
-                break;
-            case REFACTORING:
-                refactoring(player);
-                break;
-        }
-        //TODO: remove one action?
+    //moves the active player to their next phase (or gives the hand to the next player)
+    public void nextPhase() {
+        rules.nextPhase();
     }
 
     public String getApplicationsTooltip() {
         StringBuilder sb = new StringBuilder();
         sb.append(String.format("%d Applications:",
-                applications.size()));
-        for (Application app : applications) {
+                state.getApplications().size()));
+        for (Application app : state.getApplications()) {
             sb.append(String.format("\n%s", app.getDescription()));
         }
 
         return sb.toString();
     }
 
-    private void train(Player player) {
-        player.playCardFromHand(CardType.TRAINING);
-        int cardsCount= player.getCardsInHand().size();
-        player.drawCards(2, random, view);
-        int cardsDrawn = player.getCardsInHand().size() - cardsCount;
-        player.addMorePlays(1);
-        gameSummaryManager.addTraining(player, cardsDrawn);
+    public void resetGameTurnData() {
+        gameSummaryManager.clear();
+        for (Player player : gameManager.getActivePlayers()) {
+            player.setMessage(null);
+            view.setPlayerMessage(player);
+        }
     }
 
-    private void coding(Player player) {
-        player.playCardFromHand(CardType.CODING);
-        int cardsCount= player.getCardsInHand().size();
-        player.drawCards(1, random, view);
-        int cardsDrawn = player.getCardsInHand().size() - cardsCount;
-        player.addMorePlays(2);
-        gameSummaryManager.addCoding(player, cardsDrawn);
+    //the only action the player can play in this phase, no action if they have a choice
+    public int getForcedAction(Player player, GamePhase gamePhase) {
+        return rules.getForcedAction(player.getState(), gamePhase);
     }
 
-    private void dailyRoutine(Player player) {
-        player.playPermanentSkillCardFromHand(CardType.DAILY_ROUTINE);
-        gameSummaryManager.addDailyRoutine(player);
+    //Sends input data to the player bot for one turn
+    public List<String> getCurrentFrameInfoFor(Player player, GamePhase gamePhase) {
+        return rules.getCurrentFrameInfoFor(player.getState(), gamePhase);
     }
 
-    private void taskPrioritization(Player player, PlayAction action) {
-        player.playCardFromHand(CardType.TASK_PRIORITIZATION);
-        Card thrownCard = player.removeCardInHand(action.getSecondaryCardType());
-        if (thrownCard == null) {
-            gameSummaryManager.addUselessTaskPrioritization(player, action.getSecondaryCardType());
-            return;
-        }
-        if (thrownCard.isTechnicalDebt()) {
-            gameSummaryManager.addUselessTaskPrioritization(player, action.getSecondaryCardType());
-            player.addNewCardInHand(thrownCard);
-            return;
-        }
-        Card cardTaken = null;
-        if (action.getThirdCardType().equals(CardType.BONUS)) {
-            if (!bonusCardsPool.empty()) {
-                cardTaken = bonusCardsPool.pop();
-            }
-        } else {
-            cardTaken = zones[action.getThirdCardType().ordinal()].getNextCard();
-        }
-        if (cardTaken==null) {
-            gameSummaryManager.addReallyUselessTaskPrioritization(player, action.getThirdCardType());
-            return;
-        }
-        if (thrownCard.isActionCard()) {
-            zones[thrownCard.getCardType().ordinal()].returnCard(thrownCard);
-        } else { //bonus card
-            bonusCardsPool.push((BonusCard) thrownCard);
-        }
-        player.addNewCardInHand(cardTaken);
-        view.playerTakesCardInHand(cardTaken);
-        if (cardTaken.isGoodActionBonus() && action.getThirdCardType() != CardType.BONUS) {
-            gameSummaryManager.addSemiUselessTaskPrioritization(player, action.getThirdCardType());
-        } else {
-            gameSummaryManager.addUsefulTaskPrioritization(player, action.getSecondaryCardType(), cardTaken.getCardType());
-        }
+    //the game phase then the changes since the previous turn of the player (the whole input on their first turn)
+    public List<String> getCurrentFrameDeltaFor(Player player, GamePhase gamePhase) {
+        FrameInputEncoder inputEncoder = inputEncoders[player.getIndex()];
+        inputEncoder.encodeDelta(rules, player.getState(), gamePhase);
+        return inputEncoder.getLines();
+    }
+
+    private String getZonesInfo() {
+        return String.join(" ", Arrays.stream(zones).map(zone -> String.valueOf(zone.getCardsCount())).collect(Collectors.toList()));
     }
 
-    private void architectureStudy(Player player) {
-        player.playPermanentSkillCardFromHand(CardType.ARCHITECTURE_STUDY);
-        gameSummaryManager.addArchitectureStudy(player);
+    public boolean canReleaseApplication(Player player) {
+        return rules.canReleaseApplication(player.getState());
     }
 
-    private void continuousIntegration(Player player, PlayAction action) {
-        player.playCardFromHand(CardType.CONTINUOUS_INTEGRATION);
-        Card cardToAutomate = player.removeCardInHand(action.getSecondaryCardType());
-        if (cardToAutomate == null) {
-            gameSummaryManager.addUselessContinuousIntegration(player, action.getSecondaryCardType());
+    public List<Application> getReleasableApplications(Player player) {
+        return rules.getReleasableApplications(player.getState());
+    }
+
+    public List<Application> getApplications() {
+        return state.getApplications();
+    }
+
+    private Player getPlayer(PlayerState playerState) {
+        return gameManager.getPlayer(playerState.getIndex());
+    }
+
+    //card objects of a pile, a null player is the board
+    private List<Card> getCards(PlayerState player, Pile pile, CardType cardType) {
+        if (player != null) {
+            return getPlayer(player).getCards(pile);
         }
-        else if (cardToAutomate.isTechnicalDebt()) {
-            player.addNewCardInHand(cardToAutomate);
-            gameSummaryManager.addUselessContinuousIntegration(player, action.getSecondaryCardType());
-        } else {
-            gameSummaryManager.addUsefulContinuousIntegration(player, action.getSecondaryCardType());
-            player.addAutomatedCard(cardToAutomate);
+        if (cardType == CardType.BONUS) {
+            return bonusCardsPool;
+        }
+        if (cardType == CardType.TECHNICAL_DEBT) {
+            return technicalDebtCardsPool;
         }
+        return zones[cardType.ordinal()].getCards();
     }
 
-    private void codeReview(Player player) {
-        player.playCardFromHand(CardType.CODE_REVIEW);
-        BonusCard card1 = getNextBonusCard();
-        BonusCard card2 = getNextBonusCard();
-        if (card1 == null) {
-            gameSummaryManager.addUselessCodeReview(player);
-        }
-        else {
-            player.addNewCardInDiscardPile(card1);
-            view.addCardInDiscardPile(card1, player);
-            if (card2 == null) {
-                gameSummaryManager.addSemiUsefulCodeReview(player);
-            }
-            else {
-                player.addNewCardInDiscardPile(card2);
-                view.addCardInDiscardPile(card2, player);
-                gameSummaryManager.addUsefulCodeReview(player);
+    private static Card removeCard(List<Card> cards, CardType cardType) {
+        for (int i=cards.size()-1;i>=0;--i) {
+            if (cards.get(i).getCardType() == cardType) {
+                return cards.remove(i);
             }
         }
+        throw new IllegalStateException("No " + cardType + " card to move");
     }
 
-    private void refactoring(Player player) {
-        player.playCardFromHand(CardType.REFACTORING);
-        Card thrownCard = player.removeCardInHand(CardType.TECHNICAL_DEBT);
-        if (thrownCard == null) {
-            gameSummaryManager.addUselessRefactoring(player);
-        }
-        else {
-            technicalDebtCardsPool.push((TechnicalDebtCard) thrownCard);
-            view.playerThrowsCard(0, thrownCard);
-            gameSummaryManager.addRefactoring(player);
+    @Override
+    public void onCardMoved(CardType cardType, PlayerState from, Pile fromPile, PlayerState to, Pile toPile) {
+        movedCard = fromPile == null ? createNewCard(cardType) : removeCard(getCards(from, fromPile, cardType), cardType);
+        if (toPile != null) {
+            getCards(to, toPile, cardType).add(movedCard);
         }
-        view.adaptTechnicalDebtBar(player, 0);
     }
 
-    private void throwCard(Player player, ThrowAction action) {
-        Card thrownCard = player.removeCardInHand(action.getCardType());
-        if (thrownCard.isGoodActionBonus()) {
-            bonusCardsPool.push((BonusCard)thrownCard);
-        }
-        else {
-            zones[thrownCard.getCardType().ordinal()].returnCard(thrownCard);
-        }
-        player.setNumberOfCardsToThrow(player.getNumberOfCardsToThrow()-1);
-        gameSummaryManager.addThrowCard(player, thrownCard);
-        view.playerThrowsCard(0, thrownCard);
-        if (player.getNumberOfCardsToThrow()==0) {
-            view.movePlayer(player, -1, player.getZoneId());
-            gameSummaryManager.addMove(player);
-
-            //check distance
-            Player opponentPlayer = gameManager.getActivePlayers().get((player.getIndex() + 1) % 2);
-            if (Config.GIVE_CARD_IF_TOO_CLOSE_TO_OPPONENT
-                    && opponentPlayer.getZoneId()>=0
-                    && ((abs(opponentPlayer.getZoneId() - player.getZoneId())<=1)
-                        || (abs(opponentPlayer.getZoneId() - player.getZoneId())==7))) {
-                //too close, must give one card
-                gameSummaryManager.addMustGiveCard(player);
-                List<Card> giveableCards = player.getNonTechnicalDebtCardsInHand();
-                if (giveableCards.isEmpty()) {
-                    //automatic technical debt
-                    int technicalDebtToTake = 2;
-                    int technicalDebtTaken = 0;
-                    for(int i=0;i<technicalDebtToTake;++i) {
-                        Card technicalDebt = getNextTechnicalDebtCard();
-                        if (technicalDebt!=null) {
-                            player.addNewCardInDiscardPile(technicalDebt);
-                            view.addCardInDiscardPile(technicalDebt, player);
-                            technicalDebtTaken++;
-                        }
-                    }
-                    if (technicalDebtTaken == technicalDebtToTake) {
-                        gameSummaryManager.addGetTechnicalDebt(player, technicalDebtToTake);
-                    } else {
-                        gameSummaryManager.addGetLessTechnicalDebtThanExpected(player, technicalDebtToTake, technicalDebtTaken);
-                    }
-                    view.adaptTechnicalDebtBar(player, 0);
-                }
-                else if (giveableCards.size() == 1 || giveableCards.stream().allMatch(card -> card.getCardType().equals(giveableCards.get(0).getCardType()))) {
-                    //automatic give, but no technical debt
-                    Card givenCard = giveableCards.get(0);
-                    player.removeCardInHand(givenCard);
-                    opponentPlayer.addNewCardInHand(givenCard);
-                    gameSummaryManager.addGiveCard(player, givenCard);
-                }
-                else {
-                    player.setMustGiveCard(true);
-                    return;
-                }
-            }
+    @Override
+    public void onCardTaken(PlayerState player, CardType cardType) {
+        view.playerTakesCardInHand(movedCard);
+    }
 
-            takeCard(player);
-        }
+    @Override
+    public void onCardAddedToDiscardPile(PlayerState player, CardType cardType) {
+        view.addCardInDiscardPile(movedCard, getPlayer(player));
     }
 
-    private void giveCard(Player player, GiveAction action) {
-        Card givenCard = player.removeCardInHand(action.getCardType());
-        Player opponentPlayer = gameManager.getActivePlayers().get((player.getIndex() + 1) % 2);
-        opponentPlayer.addNewCardInHand(givenCard);
-        player.hasGivenCard();
-        gameSummaryManager.addGiveCard(player, givenCard);
-        if (player.getNumberOfCardsToThrow()==0) {
-            takeCard(player);
-        }
+    @Override
+    public void onTechnicalDebtChanged(PlayerState player) {
+        view.adaptTechnicalDebtBar(getPlayer(player), 0);
     }
 
-    private void release(Player player, ReleaseAction action) {
-        Application application = applications.stream().filter(obj -> obj.getId()==action.getApplicationId()).findFirst().get();
-        int badActionsUsed = application.canBeReleased(player);
-        applications.remove(application);
-        gameSummaryManager.addRelease(player, application);
-        gameManager.addTooltip(
-                player, String.format(
-                        "%s released application %s",
-                        player.getNicknameToken(),
-                        application.getDescription()
-                )
-        );
-        player.setScore(player.getScore()+1);
-        player.discardPermanentSkills();
-        int technicalDebtTaken = 0;
-        for(int i=0;i<badActionsUsed;++i) {
-            Card technicalDebt = getNextTechnicalDebtCard();
-            if (technicalDebt!=null) {
-                player.addNewCardInDiscardPile(technicalDebt);
-                view.addCardInDiscardPile(technicalDebt, player);
-                technicalDebtTaken++;
-            }
-        }
-        if (badActionsUsed>0) {
+    @Override
+    public void onPlayerMoved(PlayerState player, int zoneFrom, int zoneTo) {
+        view.movePlayer(getPlayer(player), zoneFrom, zoneTo);
+    }
 
-            if (technicalDebtTaken == badActionsUsed) {
-                gameSummaryManager.addGetTechnicalDebt(player, badActionsUsed);
-            } else {
-                gameSummaryManager.addGetLessTechnicalDebtThanExpected(player, badActionsUsed, technicalDebtTaken);
-            }
-            view.adaptTechnicalDebtBar(player, 0);
-            view.animateBadRelease(player);
-        }
-        else {
-            view.animateGoodRelease(player);
-        }
-        if (player.getScore()>=Config.APPLICATIONS_TO_WIN) {
-            lastTurn = true;
-            gameSummaryManager.addEndGameTriggered(player);
-        }
+    @Override
+    public void onScoreChanged(PlayerState player) {
+        getPlayer(player).setScore(player.getScore());
+        view.animateScore(getPlayer(player), player.getScore());
+    }
 
-        view.animateScore(player, player.getScore());
-    }
-
-    private void move(Player player, MoveAction action) {
-        if (Config.LOSE_CARDS_AT_END_OF_CYCLE && action.getZoneToMoveId() < player.getZoneId()) {
-            //End of cycle => technical debt
-            gameSummaryManager.addFinishCycle(player);
-            List<Card> throwableCards = player.getNonTechnicalDebtCardsInHand();
-            if (throwableCards.size() <= 2) {
-                //automatic technical debt
-                int technicalDebtToTake = 2-throwableCards.size();
-                gameSummaryManager.addThrowAllCards(player);
-                for (Card thrownCard : throwableCards) {
-                    player.removeCardInHand(thrownCard);
-                    if (thrownCard.isGoodActionBonus()) {
-                        bonusCardsPool.push((BonusCard) thrownCard);
-                    } else {
-                        zones[thrownCard.getCardType().ordinal()].returnCard(thrownCard);
-                    }
-                    gameSummaryManager.addThrowCard(player, thrownCard);
-                    view.playerThrowsCard(0.5, thrownCard);
-                }
-                int technicalDebtTaken = 0;
-                for(int i=0;i<technicalDebtToTake;++i) {
-                    Card technicalDebt = getNextTechnicalDebtCard();
-                    if (technicalDebt!=null) {
-                        player.addNewCardInDiscardPile(technicalDebt);
-                        view.addCardInDiscardPile(technicalDebt, player);
-                        technicalDebtTaken++;
-                    }
-                }
-                if (technicalDebtToTake>0) {
-
-                    if (technicalDebtTaken == technicalDebtToTake) {
-                        gameSummaryManager.addGetTechnicalDebt(player, technicalDebtToTake);
-                    } else {
-                        gameSummaryManager.addGetLessTechnicalDebtThanExpected(player, technicalDebtToTake, technicalDebtTaken);
-                    }
-                    view.adaptTechnicalDebtBar(player, 0);
-                }
-            }
-            else if (throwableCards.stream().allMatch(card -> card.getCardType().equals(throwableCards.get(0).getCardType()))) {
-                //only one card type => automatic throw
-                for (int i=0;i<2;++i) {
-                    Card thrownCard = throwableCards.get(i);
-                    player.removeCardInHand(thrownCard);
-                    if (thrownCard.isGoodActionBonus()) {
-                        bonusCardsPool.push((BonusCard) thrownCard);
-                    } else {
-                        zones[thrownCard.getCardType().ordinal()].returnCard(thrownCard);
-                    }
-                    gameSummaryManager.addThrowCard(player, thrownCard);
-                    view.playerThrowsCard(0.5, thrownCard);
-                }
-            }
-            else {
-                player.setNumberOfCardsToThrow(2);
-            }
-        }
-        if (player.getNumberOfCardsToThrow()>0) {
-            view.movePlayer(player, player.getZoneId(), -1);
-            player.setZoneId(action.getZoneToMoveId());
-            player.setMustTakeCard(action.getZoneToTakeCardId());
-            return;
-        }
-        view.movePlayer(player, player.getZoneId(), action.getZoneToMoveId());
-        player.setZoneId(action.getZoneToMoveId());
-        gameSummaryManager.addMove(player);
-
-        //check distance
-        Player opponentPlayer = gameManager.getActivePlayers().get((player.getIndex() + 1) % 2);
-        if (Config.GIVE_CARD_IF_TOO_CLOSE_TO_OPPONENT
-                && opponentPlayer.getZoneId()>=0
-                && ((abs(opponentPlayer.getZoneId() - player.getZoneId())<=1)
-                    || (abs(opponentPlayer.getZoneId() - player.getZoneId())==7))) {
-            //too close, must give one card
-            gameSummaryManager.addMustGiveCard(player);
-            List<Card> giveableCards = player.getNonTechnicalDebtCardsInHand();
-            if (giveableCards.isEmpty()) {
-                //automatic technical debt
-                int technicalDebtToTake = 2;
-                int technicalDebtTaken = 0;
-                for(int i=0;i<technicalDebtToTake;++i) {
-                    Card technicalDebt = getNextTechnicalDebtCard();
-                    if (technicalDebt!=null) {
-                        player.addNewCardInDiscardPile(technicalDebt);
-                        view.addCardInDiscardPile(technicalDebt, player);
-                        technicalDebtTaken++;
-                    }
-                }
-                if (technicalDebtTaken == technicalDebtToTake) {
-                    gameSummaryManager.addGetTechnicalDebt(player, technicalDebtToTake);
-                } else {
-                    gameSummaryManager.addGetLessTechnicalDebtThanExpected(player, technicalDebtToTake, technicalDebtTaken);
-                }
-                view.adaptTechnicalDebtBar(player, 0);
-            }
-            else if (giveableCards.size() == 1 || giveableCards.stream().allMatch(card -> card.getCardType().equals(giveableCards.get(0).getCardType()))) {
-                //automatic give, but no technical debt
-                Card givenCard = giveableCards.get(0);
-                player.removeCardInHand(givenCard);
-                opponentPlayer.addNewCardInHand(givenCard);
-                gameSummaryManager.addGiveCard(player, givenCard);
-            }
-            else {
-                player.setMustGiveCard(true);
-            }
-        }
+    @Override
+    public void onMove(PlayerState player) {
+        gameSummaryManager.addMove(getPlayer(player));
+    }
 
-        player.setMustTakeCard(action.getZoneToTakeCardId());
-        if (!player.mustGiveCard()) {
-            takeCard(player);
-        }
+    @Override
+    public void onFinishCycle(PlayerState player) {
+        gameSummaryManager.addFinishCycle(getPlayer(player));
     }
 
-    public void takeCard(Player player) {
-        Card cardTaken = zones[player.getZoneToTakeCardId()].getNextCard();
-        if (cardTaken==null) {
-            gameSummaryManager.addUselessTakeCard(player, player.getZoneToTakeCardId());
-            return;
-        }
-        player.addNewCardInHand(cardTaken);
-        if (cardTaken.isGoodActionBonus()) {
-            gameSummaryManager.addSemiUselessTakeCard(player, player.getZoneToTakeCardId());
+    @Override
+    public void onThrowAllCards(PlayerState player) {
+        gameSummaryManager.addThrowAllCards(getPlayer(player));
+    }
+
+    @Override
+    public void onThrowCard(PlayerState player, CardType cardType, boolean endOfCycle) {
+        gameSummaryManager.addThrowCard(getPlayer(player), movedCard);
+        view.playerThrowsCard(endOfCycle ? 0.5 : 0, movedCard);
+    }
+
+    @Override
+    public void onMustGiveCard(PlayerState player) {
+        gameSummaryManager.addMustGiveCard(getPlayer(player));
+    }
+
+    @Override
+    public void onGiveCard(PlayerState player, CardType cardType) {
+        gameSummaryManager.addGiveCard(getPlayer(player), movedCard);
+    }
+
+    @Override
+    public void onTakeCard(PlayerState player, CardType cardType) {
+        gameSummaryManager.addTakeCard(getPlayer(player), movedCard);
+    }
+
+    @Override
+    public void onSemiUselessTakeCard(PlayerState player, int zoneToTakeCardId) {
+        gameSummaryManager.addSemiUselessTakeCard(getPlayer(player), zoneToTakeCardId);
+    }
+
+    @Override
+    public void onUselessTakeCard(PlayerState player, int zoneToTakeCardId) {
+        gameSummaryManager.addUselessTakeCard(getPlayer(player), zoneToTakeCardId);
+    }
+
+    @Override
+    public void onTechnicalDebtTaken(PlayerState player, int technicalDebtToTake, int technicalDebtTaken) {
+        if (technicalDebtTaken == technicalDebtToTake) {
+            gameSummaryManager.addGetTechnicalDebt(getPlayer(player), technicalDebtToTake);
         } else {
-            gameSummaryManager.addTakeCard(player, cardTaken);
+            gameSummaryManager.addGetLessTechnicalDebtThanExpected(getPlayer(player), technicalDebtToTake, technicalDebtTaken);
         }
-        view.playerTakesCardInHand(cardTaken);
-        player.setMustTakeCard(-1);
     }
 
-    public void resetGameTurnData() {
-        gameSummaryManager.clear();
-        for (Player player : gameManager.getActivePlayers()) {
-            player.setMessage(null);
-            view.setPlayerMessage(player);
-        }
+    @Override
+    public void onWait(PlayerState player) {
+        gameSummaryManager.addWait(getPlayer(player));
     }
 
-    //Sends input data to the player bot for one turn
-    public List<String> getCurrentFrameInfoFor(Player player, GamePhase gamePhase) {
-        List<String> lines = new ArrayList<>();
-        //objectives data
-        lines.add(Integer.toString(applications.size()));
-        for(Application application : applications) {
-            lines.add(application.toString());
-        }
-        //Player information, receiving player first
-        Player opponentPlayer = gameManager.getActivePlayers().get((player.getIndex() + 1) % 2);
-        lines.add(String.format("%d %d %d %d", player.getZoneId(), player.getScore(), player.getPermanentDailyRoutineCardsCount(), player.getPermanentArchitectureStudyCardsCount()));
-        lines.add(String.format("%d %d %d %d", opponentPlayer.getZoneId(), opponentPlayer.getScore(), opponentPlayer.getPermanentDailyRoutineCardsCount(), opponentPlayer.getPermanentArchitectureStudyCardsCount()));
-        List<String> cardLocations = new ArrayList<>();
-        cardLocations.addAll(player.getCardsInfo());
-        cardLocations.add("OPPONENT_" + opponentPlayer.getGlobalCardsInfo());
-        if (opponentPlayer.getAutomatedCards().size() > 0) {
-            cardLocations.add("OPPONENT_" + opponentPlayer.getAutomatedCardsInfo());
-        }
-        lines.add(Integer.toString(cardLocations.size()));
-        lines.addAll(cardLocations);
-
-        //possible moves
-        List<String> possibleActions = getPossibleActions(player, gamePhase);
-        lines.add(String.valueOf(possibleActions.size()));
-        possibleActions
-                .stream()
-                .forEach(lines::add);
-        return lines;
+    @Override
+    public void onTraining(PlayerState player, int cardsDrawn) {
+        gameSummaryManager.addTraining(getPlayer(player), cardsDrawn);
     }
 
-    private List<String> getPossibleActions(Player player, GamePhase gamePhase) {
-        switch (gamePhase) {
-            case MOVE:
-                return getPossibleMoves(player);
-            case GIVE_CARD:
-                return getPossibleGives(player);
-            case THROW_CARD:
-                return getPossibleThrows(player);
-            case PLAY_CARD:
-                return getPossiblePlays(player);
-            case RELEASE:
-                return getPossibleReleases(player);
-            default:
-                return null;
-        }
+    @Override
+    public void onCoding(PlayerState player, int cardsDrawn) {
+        gameSummaryManager.addCoding(getPlayer(player), cardsDrawn);
     }
 
-    private List<String> getPossibleMoves(Player player) {
-        List<String> moves = new ArrayList<>();
-        int zoneMaxShift = player.getPermanentDailyRoutineCardsCount();
-        if (zoneMaxShift>0) {
-            for (int i=1;i<Config.ZONES_COUNT;++i) {
-                int moveTarget = (player.getZoneId() + i) % Config.ZONES_COUNT;
-                for(int j=-zoneMaxShift;j<=zoneMaxShift;++j) {
-                    int zone = (moveTarget + j +Config.ZONES_COUNT)%Config.ZONES_COUNT;
-                    if (zone != moveTarget) {
-                        moves.add(String.format("MOVE %d %d", moveTarget, zone));
-                    }
-                    else {
-                        moves.add(String.format("MOVE %d", moveTarget));
-                    }
-                }
-            }
-        }
-        else {
-            for (int i=1;i<Config.ZONES_COUNT;++i) {
-                moves.add(String.format("MOVE %d", (player.getZoneId() + i)%Config.ZONES_COUNT));
-            }
-        }
-        if (player.getZoneId()<0) {
-            //1st turn, can go to 8 places
-            moves.add(String.format("MOVE %d", (player.getZoneId() + Config.ZONES_COUNT)%Config.ZONES_COUNT));
-        }
-        moves.add("RANDOM");
-        return moves;
+    @Override
+    public void onDailyRoutine(PlayerState player) {
+        gameSummaryManager.addDailyRoutine(getPlayer(player));
     }
 
-    private List<String> getPossibleGives(Player player) {
-        List<String> gives = new ArrayList<>();
-        for (Card card : player.getNonTechnicalDebtCardsInHand()) {
-            String giveCard = String.format("GIVE %d", card.getCardType().ordinal());
-            if (!gives.contains(giveCard)) {
-                gives.add(giveCard);
-            }
-        }
-        gives.add("RANDOM");
-        return gives;
+    @Override
+    public void onArchitectureStudy(PlayerState player) {
+        gameSummaryManager.addArchitectureStudy(getPlayer(player));
     }
 
-    private List<String> getPossibleThrows(Player player) {
-        List<String> throwCards = new ArrayList<>();
-        for (Card card : player.getNonTechnicalDebtCardsInHand()) {
-            String throwCard = String.format("THROW %d", card.getCardType().ordinal());
-            if (!throwCards.contains(throwCard)) {
-                throwCards.add(throwCard);
-            }
-        }
-        throwCards.add("RANDOM");
-        return throwCards;
-    }
-
-    private List<String> getPossiblePlays(Player player) {
-        List<String> cardPlays = new ArrayList<>();
-        if (!Config.CAN_PLAY_COMPLEX_CARDS) {
-            for (Card card : player.getSimpleActionCardsInHand()) {
-                String cardPlay = card.getCardType().toString();
-                if (!cardPlays.contains(cardPlay)) {
-                    cardPlays.add(cardPlay);
-                }
-            }
-        }
-        else {
-            for (Card card : player.getActionCardsInHand()) {
-                if (card.getCardType() == CardType.TASK_PRIORITIZATION) {
-                    for (Card cardToReplace : player.getNonTechnicalDebtCardsInHand()) {
-                        if (cardToReplace.getId() != card.getId()) {
-                            for (int zoneId = 0; zoneId < Config.ZONES_COUNT; ++zoneId) {
-                                String cardPlay = String.format("%s %d %d", card.getCardType().toString(), cardToReplace.getCardType().ordinal(), zoneId);
-                                if (!cardPlays.contains(cardPlay)) {
-                                    cardPlays.add(cardPlay);
-                                }
-                            }
-                        }
-                    }
-                }
-                else if (card.getCardType() == CardType.CONTINUOUS_INTEGRATION) {
-                    for (Card cardToAutomate : player.getNonTechnicalDebtCardsInHand()) {
-                        if (cardToAutomate.getId() != card.getId()) {
-                            String cardPlay = String.format("%s %d", card.getCardType().toString(), cardToAutomate.getCardType().ordinal());
-                            if (!cardPlays.contains(cardPlay)) {
-                                cardPlays.add(cardPlay);
-                            }
-                        }
-                    }
-                }
-                else {
-                    String cardPlay = card.getCardType().toString();
-                    if (!cardPlays.contains(cardPlay)) {
-                        cardPlays.add(cardPlay);
-                    }
-                }
-            }
-        }
-        cardPlays.add("RANDOM");
-        cardPlays.add("WAIT");
-        return cardPlays;
+    @Override
+    public void onUselessTaskPrioritization(PlayerState player, CardType cardTypeToThrow) {
+        gameSummaryManager.addUselessTaskPrioritization(getPlayer(player), cardTypeToThrow);
     }
 
-    private List<String> getPossibleReleases(Player player) {
-        List<String> releases = new ArrayList<>();
-        for (Application application : getReleasableApplications(player)) {
-            releases.add(String.format("RELEASE %d", application.getId()));
-        }
-        releases.add("RANDOM");
-        releases.add("WAIT");
-        return releases;
+    @Override
+    public void onReallyUselessTaskPrioritization(PlayerState player, CardType cardTypeToTake) {
+        gameSummaryManager.addReallyUselessTaskPrioritization(getPlayer(player), cardTypeToTake);
     }
 
-    private String getZonesInfo() {
-        return String.join(" ", Arrays.stream(zones).map(zone -> String.valueOf(zone.getCardsCount())).collect(Collectors.toList()));
+    @Override
+    public void onSemiUselessTaskPrioritization(PlayerState player, CardType cardTypeToTake) {
+        gameSummaryManager.addSemiUselessTaskPrioritization(getPlayer(player), cardTypeToTake);
     }
 
-    public boolean canReleaseApplication(Player player) {
-        for (Application application : applications) {
-            if (application.canBeReleased(player)>=0) {
-                return true;
-            }
-        }
-        return false;
+    @Override
+    public void onUsefulTaskPrioritization(PlayerState player, CardType cardTypeThrown, CardType cardTypeTaken) {
+        gameSummaryManager.addUsefulTaskPrioritization(getPlayer(player), cardTypeThrown, cardTypeTaken);
     }
 
-    public List<Application> getReleasableApplications(Player player) {
-        List<Application> releasable = new ArrayList<>();
-        for (Application application : applications) {
-            if (application.canBeReleased(player)>=0) {
-                releasable.add(application);
-            }
+    @Override
+    public void onUselessContinuousIntegration(PlayerState player, CardType cardType) {
+        gameSummaryManager.addUselessContinuousIntegration(getPlayer(player), cardType);
+    }
+
+    @Override
+    public void onUsefulContinuousIntegration(PlayerState player, CardType cardType) {
+        gameSummaryManager.addUsefulContinuousIntegration(getPlayer(player), cardType);
+    }
+
+    @Override
+    public void onUselessCodeReview(PlayerState player) {
+        gameSummaryManager.addUselessCodeReview(getPlayer(player));
+    }
+
+    @Override
+    public void onSemiUsefulCodeReview(PlayerState player) {
+        gameSummaryManager.addSemiUsefulCodeReview(getPlayer(player));
+    }
+
+    @Override
+    public void onUsefulCodeReview(PlayerState player) {
+        gameSummaryManager.addUsefulCodeReview(getPlayer(player));
+    }
+
+    @Override
+    public void onUselessRefactoring(PlayerState player) {
+        gameSummaryManager.addUselessRefactoring(getPlayer(player));
+    }
+
+    @Override
+    public void onRefactoring(PlayerState player) {
+        view.playerThrowsCard(0, movedCard);
+        gameSummaryManager.addRefactoring(getPlayer(player));
+    }
+
+    @Override
+    public void onRelease(PlayerState player, Application application) {
+        gameSummaryManager.addRelease(getPlayer(player), application);
+        gameManager.addTooltip(
+                getPlayer(player), String.format(
+                        "%s released application %s",
+                        getPlayer(player).getNicknameToken(),
+                        application.getDescription()
+                )
+        );
+    }
+
+    @Override
+    public void onReleaseCompleted(PlayerState player, int badActionsUsed) {
+        if (badActionsUsed>0) {
+            view.animateBadRelease(getPlayer(player));
+        }
+        else {
+            view.animateGoodRelease(getPlayer(player));
         }
-        return releasable;
     }
 
-    public List<Application> getApplications() {
-        return applications;
+    @Override
+    public void onEndGameTriggered(PlayerState player) {
+        gameSummaryManager.addEndGameTriggered(getPlayer(player));
+    }
+
+    @Override
+    public void onNoMorePlayingCardAllowed(PlayerState player) {
+        gameSummaryManager.addNoMorePlayingCardAllowed(getPlayer(player));
+    }
+
+    @Override
+    public void onNoCardToPlay(PlayerState player) {
+        gameSummaryManager.addNoCardToPlay(getPlayer(player));
+    }
+
+    @Override
+    public void onDiscardCards(PlayerState player) {
+        gameSummaryManager.addDiscardCards(getPlayer(player));
     }
 }
@@ -1,5 +1,6 @@
 package com.codingame.game;
 
+import com.codingame.game.action.ActionCode;
 import com.codingame.game.card.ActionCard;
 import com.codingame.game.card.Card;
 import com.codingame.game.card.CardType;
@@ -145,6 +146,16 @@ public class GameSummaryManager {
         );
     }
 
+    public void addForcedAction(Player player, int action) {
+        lines.add(
+                String.format(
+                        "%s had no choice: %s was played for them",
+                        player.getNicknameToken(),
+                        ActionCode.toString(action)
+                )
+        );
+    }
+
     public void addEndGameTriggered(Player player) {
         lines.add(
                 String.format(
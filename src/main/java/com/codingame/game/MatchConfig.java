@@ -0,0 +1,97 @@
+package com.codingame.game;
+
+import java.util.Properties;
+import java.util.function.Function;
+
+/**
+ * The rules of one match, set from the league and then from the game parameters.
+ * It is immutable so that matches with different rules can run side by side.
+ */
+public final class MatchConfig {
+    private final int smallApplicationsCount;
+    private final int bigApplicationsCount;
+    private final int applicationsToWin;
+    private final int cardsPerZone;
+    private final boolean giveCardIfTooCloseToOpponent;
+    private final boolean canPlaySimpleCards;
+    private final boolean loseCardsAtEndOfCycle;
+    private final boolean canPlayComplexCards;
+
+    private MatchConfig(int smallApplicationsCount, int bigApplicationsCount, int applicationsToWin, int cardsPerZone,
+                        boolean giveCardIfTooCloseToOpponent, boolean canPlaySimpleCards,
+                        boolean loseCardsAtEndOfCycle, boolean canPlayComplexCards) {
+        this.smallApplicationsCount = smallApplicationsCount;
+        this.bigApplicationsCount = bigApplicationsCount;
+        this.applicationsToWin = applicationsToWin;
+        this.cardsPerZone = cardsPerZone;
+        this.giveCardIfTooCloseToOpponent = giveCardIfTooCloseToOpponent;
+        this.canPlaySimpleCards = canPlaySimpleCards;
+        this.loseCardsAtEndOfCycle = loseCardsAtEndOfCycle;
+        this.canPlayComplexCards = canPlayComplexCards;
+    }
+
+    public static MatchConfig fromLeague(LeagueRules rules) {
+        return new MatchConfig(
+                rules.smallApplicationsCount,
+                rules.bigApplicationsCount,
+                5,
+                5,
+                rules.giveCardIfTooCloseToOpponent,
+                rules.canPlaySimpleCards,
+                rules.loseCardsAtEndOfCycle,
+                rules.canPlayComplexCards
+        );
+    }
+
+    //returns a copy of this configuration overridden by the game parameters
+    public MatchConfig apply(Properties params) {
+        return new MatchConfig(
+                getFromParams(params, "SMALL_APPLICATIONS_COUNT", smallApplicationsCount),
+                getFromParams(params, "BIG_APPLICATIONS_COUNT", bigApplicationsCount),
+                getFromParams(params, "APPLICATIONS_TO_WIN", applicationsToWin),
+                getFromParams(params, "CARDS_PER_ZONE", cardsPerZone),
+                getFromParams(params, "GIVE_CARD_IF_TOO_CLOSE_TO_OPPONENT", giveCardIfTooCloseToOpponent),
+                getFromParams(params, "CAN_PLAY_SIMPLE_CARDS", canPlaySimpleCards),
+                getFromParams(params, "LOSE_CARDS_AT_END_OF_CYCLE", loseCardsAtEndOfCycle),
+                getFromParams(params, "CAN_PLAY_COMPLEX_CARDS", canPlayComplexCards)
+        );
+    }
+
+    public int getSmallApplicationsCount() { return smallApplicationsCount; }
+
+    public int getBigApplicationsCount() { return bigApplicationsCount; }
+
+    public int getApplicationsCount() { return smallApplicationsCount + bigApplicationsCount; }
+
+    public int getApplicationsToWin() { return applicationsToWin; }
+
+    public int getCardsPerZone() { return cardsPerZone; }
+
+    public boolean giveCardIfTooCloseToOpponent() { return giveCardIfTooCloseToOpponent; }
+
+    public boolean canPlaySimpleCards() { return canPlaySimpleCards; }
+
+    public boolean loseCardsAtEndOfCycle() { return loseCardsAtEndOfCycle; }
+
+    public boolean canPlayComplexCards() { return canPlayComplexCards; }
+
+    private static int getFromParams(Properties params, String name, int defaultValue) {
+        return getFromParams(params, name, defaultValue, Integer::parseInt);
+    }
+
+    private static boolean getFromParams(Properties params, String name, boolean defaultValue) {
+        return getFromParams(params, name, defaultValue, Boolean::parseBoolean);
+    }
+
+    private static <T> T getFromParams(Properties params, String name, T defaultValue, Function<String, T> create) {
+        String inputValue = params.getProperty(name);
+        if (inputValue != null) {
+            try {
+                return create.apply(inputValue);
+            } catch (NumberFormatException e) {
+                // Do naught
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -1,5 +1,7 @@
 package com.codingame.game;
 
+import com.codingame.game.action.ActionCode;
+import com.codingame.game.timing.RefereeTimings;
 import com.codingame.gameengine.core.AbstractPlayer.TimeoutException;
 import com.codingame.gameengine.core.AbstractReferee;
 import com.codingame.gameengine.core.MultiplayerGameManager;
@@ -8,6 +10,7 @@ import com.codingame.gameengine.module.entities.GraphicEntityModule;
 import com.codingame.view.View;
 import com.google.inject.Inject;
 
+import java.util.List;
 import java.util.Properties;
 import java.util.stream.Collectors;
 
@@ -21,42 +24,46 @@ public class Referee extends AbstractReferee {
     @Inject private CommandManager commandManager;
     @Inject private View view;
     @Inject private EndScreenModule endScreenModule;
-    private static final int MAX_TURNS = 200;
+    @Inject private RefereeTimings timings;
     private int turnId=0;
-    private int activePlayerId;
-    private GamePhase gamePhase;
     long seed;
     int maxFrames;
     boolean gameOverFrame;
+    //game parameter DELTA_INPUT: after their first turn, the bots are sent the changes since their previous turn
+    boolean deltaInput;
+    //game parameter FORCED_PHASES: the phases where the bot has a single possible action are played without querying it
+    boolean forcedPhases;
 
     @Override
     public void init() {
         // Initialize your game here.
         turnId=0;
-        activePlayerId = 0;
-        gamePhase = GamePhase.MOVE;
         gameOverFrame = false;
         //viewModule.setReferee(this);
         this.seed = gameManager.getSeed();
 
         // Set configuration depending on game rules:
-        Config.setDefaultValueByLevel(LeagueRules.fromIndex(gameManager.getLeagueLevel()));
+        MatchConfig config = MatchConfig.fromLeague(LeagueRules.fromIndex(gameManager.getLeagueLevel()));
 
         // Override configuration with game parameters:
         if (System.getProperty("allow.config.override") != null) {
-            computeConfiguration(gameManager.getGameParameters());
+            config = computeConfiguration(config, gameManager.getGameParameters());
         }
-        maxFrames = MAX_TURNS;
+        maxFrames = Config.MAX_TURNS;
+        //only the input format changes, so no override is needed
+        deltaInput = Boolean.parseBoolean(gameManager.getGameParameters().getProperty("DELTA_INPUT"));
+        forcedPhases = Boolean.parseBoolean(gameManager.getGameParameters().getProperty("FORCED_PHASES"));
+        commandManager.setTurnPlans(Boolean.parseBoolean(gameManager.getGameParameters().getProperty("TURN_PLANS")));
 
         try {
             //   Config.load(gameManager.getGameParameters());
             // Config.export(gameManager.getGameParameters());
             gameManager.setFrameDuration(500);
-            gameManager.setMaxTurns(MAX_TURNS);
-            gameManager.setFirstTurnMaxTime(1000);
-            gameManager.setTurnMaxTime(50);
+            gameManager.setMaxTurns(Config.MAX_TURNS);
+            gameManager.setFirstTurnMaxTime(Config.FIRST_TURN_MAX_TIME);
+            gameManager.setTurnMaxTime(Config.TURN_MAX_TIME);
 
-            game.init(seed);
+            game.init(seed, config);
             sendGlobalInfo();
 
         } catch (Exception e) {
@@ -66,46 +73,90 @@ public class Referee extends AbstractReferee {
         }
     }
 
-    private void computeConfiguration(Properties gameParameters) {
-        Config.apply(gameParameters);
+    private MatchConfig computeConfiguration(MatchConfig config, Properties gameParameters) {
+        return config.apply(gameParameters);
     }
 
     @Override
     public void gameTurn(int turn) {
         turnId++;
         if (!gameOverFrame) {
+            long turnStart = timings.start();
             game.resetGameTurnData();
 
-            Player player = gameManager.getPlayer(activePlayerId);
+            Player player = gameManager.getPlayer(game.getActivePlayerId());
+            GamePhase gamePhase = game.getGamePhase();
             gameSummaryManager.addStartPhase(player, gamePhase);
             gameSummaryManager.addCardsInHand(player);
-            player.sendInputLine(gamePhase.toString());
-            for (String line : game.getCurrentFrameInfoFor(player, gamePhase)) {
-                player.sendInputLine(line);
-            }
-
-            player.execute();
-            try {
-                commandManager.parseCommands(player, player.getOutputs(), game, gamePhase);
-                if (player.isActive()) {
-                    game.performGameUpdate(player);
+            long lapStart = timings.lap(RefereeTimings.Stage.FRAME_INPUT, turnStart);
+            int forcedAction = forcedPhases ? game.getForcedAction(player, gamePhase) : ActionCode.noAction();
+            if (forcedAction != ActionCode.noAction()) {
+                //no choice, the bot is not queried
+                commandManager.playForcedAction(player, forcedAction, game, gamePhase);
+                lapStart = timings.lap(RefereeTimings.Stage.PARSE_COMMAND, lapStart);
+                game.performGameUpdate(player);
+                lapStart = timings.lap(RefereeTimings.Stage.GAME_UPDATE, lapStart);
+            } else if (commandManager.parsePlannedCommand(player, game, gamePhase)) {
+                //planned by the bot, which is not queried
+                lapStart = timings.lap(RefereeTimings.Stage.PARSE_COMMAND, lapStart);
+                game.performGameUpdate(player);
+                lapStart = timings.lap(RefereeTimings.Stage.GAME_UPDATE, lapStart);
+            } else {
+                if (deltaInput) {
+                    for (String line : game.getCurrentFrameDeltaFor(player, gamePhase)) {
+                        player.sendInputLine(line);
+                    }
+                } else {
+                    player.sendInputLine(gamePhase.toString());
+                    for (String line : game.getCurrentFrameInfoFor(player, gamePhase)) {
+                        player.sendInputLine(line);
+                    }
+                }
+                lapStart = timings.lap(RefereeTimings.Stage.SEND_INPUT, lapStart);
+
+                player.execute();
+                //the stage running, for the lap of a failure
+                RefereeTimings.Stage stage = RefereeTimings.Stage.BOT_RESPONSE;
+                try {
+                    List<String> outputs = player.getOutputs();
+                    lapStart = timings.lap(RefereeTimings.Stage.BOT_RESPONSE, lapStart);
+                    stage = RefereeTimings.Stage.PARSE_COMMAND;
+                    commandManager.parseCommands(player, outputs, game, gamePhase);
+                    lapStart = timings.lap(RefereeTimings.Stage.PARSE_COMMAND, lapStart);
+                    stage = RefereeTimings.Stage.GAME_UPDATE;
+                    if (player.isActive()) {
+                        game.performGameUpdate(player);
+                        lapStart = timings.lap(RefereeTimings.Stage.GAME_UPDATE, lapStart);
+                    }
+                } catch (TimeoutException e) {
+                    commandManager.deactivatePlayer(player, "Timeout!");
+                    gameSummaryManager.addPlayerTimeout(player);
+                    gameSummaryManager.addPlayerDisqualified(player);
+                    lapStart = timings.lap(RefereeTimings.Stage.BOT_RESPONSE, lapStart);
+                } catch (Exception e) {
+                    commandManager.deactivatePlayer(player, e.getMessage());
+                    gameSummaryManager.addPlayerTimeout(player);
+                    gameSummaryManager.addPlayerDisqualified(player);
+                    lapStart = timings.lap(stage, lapStart);
                 }
-            } catch (TimeoutException e) {
-                commandManager.deactivatePlayer(player, "Timeout!");
-                gameSummaryManager.addPlayerTimeout(player);
-                gameSummaryManager.addPlayerDisqualified(player);
-            } catch (Exception e) {
-                commandManager.deactivatePlayer(player, e.getMessage());
-                gameSummaryManager.addPlayerTimeout(player);
-                gameSummaryManager.addPlayerDisqualified(player);
             }
 
-            setNextPhase(player);
+            game.nextPhase();
+            if (game.getActivePlayerId() != player.getIndex()) {
+                //a plan is for one turn
+                player.getTurnPlan().clear();
+            }
+            lapStart = timings.lap(RefereeTimings.Stage.NEXT_PHASE, lapStart);
             gameManager.addToGameSummary(gameSummaryManager.getSummary());
+            lapStart = timings.lap(RefereeTimings.Stage.GAME_SUMMARY, lapStart);
 
             view.refreshCards(game);
+            lapStart = timings.lap(RefereeTimings.Stage.REFRESH_CARDS, lapStart);
             view.refreshApplications(game);
+            lapStart = timings.lap(RefereeTimings.Stage.REFRESH_APPLICATIONS, lapStart);
             view.refreshPlayersTooltips(game);
+            timings.lap(RefereeTimings.Stage.REFRESH_PLAYERS_TOOLTIPS, lapStart);
+            timings.end(turnStart);
 
             if (game.isGameOver()) {
                 gameOverFrame = true;
@@ -117,73 +168,6 @@ public class Referee extends AbstractReferee {
         }
     }
 
-    private Boolean canPlayActionCard(Player activePlayer) {
-        return (Config.CAN_PLAY_SIMPLE_CARDS && activePlayer.canPlaySimpleCard())
-                || (Config.CAN_PLAY_COMPLEX_CARDS && activePlayer.canPlayCard());
-    }
-
-    private void setNextPhase(Player activePlayer) {
-        if (gamePhase == GamePhase.MOVE || gamePhase == GamePhase.GIVE_CARD || gamePhase == GamePhase.THROW_CARD) {
-            if (activePlayer.getNumberOfCardsToThrow()>0) {
-                gamePhase = GamePhase.THROW_CARD;
-            }
-            else if (activePlayer.mustGiveCard()) {
-                gamePhase = GamePhase.GIVE_CARD;
-            }
-            else if (canPlayActionCard(activePlayer)) {
-                startPlayCardPhase(activePlayer);
-            }
-            else if (game.canReleaseApplication(activePlayer)) {
-                gamePhase = GamePhase.RELEASE;
-            }
-            else {
-                switchToNextPlayer(activePlayer);
-            }
-        }
-        else if (gamePhase == GamePhase.PLAY_CARD) {
-            activePlayer.removeOnePlay();
-            if (activePlayer.getPlaysLeft() <= 0) {
-                gameSummaryManager.addNoMorePlayingCardAllowed(activePlayer);
-                activePlayer.setPlaysLeft(0);
-                if (game.canReleaseApplication(activePlayer)) {
-                    gamePhase = GamePhase.RELEASE;
-                }
-                else {
-                    switchToNextPlayer(activePlayer);
-                }
-            }
-            else if (!canPlayActionCard(activePlayer)) {
-                gameSummaryManager.addNoCardToPlay(activePlayer);
-                activePlayer.setPlaysLeft(0);
-                if (game.canReleaseApplication(activePlayer)) {
-                    gamePhase = GamePhase.RELEASE;
-                }
-                else {
-                    switchToNextPlayer(activePlayer);
-                }
-            }
-        }
-        else if (gamePhase == GamePhase.RELEASE) {
-            switchToNextPlayer(activePlayer);
-        }
-    }
-
-    private void startPlayCardPhase(Player player) {
-        gamePhase = GamePhase.PLAY_CARD;
-        player.setPlaysLeft(1);
-    }
-
-    private void switchToNextPlayer(Player player) {
-        player.discardAndRedrawCards(game.getRandom(), view);
-        gameSummaryManager.addDiscardCards(player);
-        gamePhase = GamePhase.MOVE;
-        //move to next player
-        activePlayerId = (activePlayerId + 1) % gameManager.getPlayerCount();
-        if (activePlayerId==0 && game.isLastTurn()) {
-            gameOverFrame = true;
-        }
-    }
-
     //player input before the 1st turn
     private void sendGlobalInfo() {
         for (Player player : gameManager.getActivePlayers()) {
@@ -245,5 +229,6 @@ public class Referee extends AbstractReferee {
                         .collect(Collectors.toList())
                         .toArray(new String[2])
         );
+        timings.endMatch(seed);
     }
 }
@@ -0,0 +1,74 @@
+package com.codingame.game;
+
+import com.codingame.game.action.ActionCode;
+import com.codingame.game.rules.PlayerState;
+
+import java.util.List;
+
+/**
+ * The commands a bot plans for the next phases of its turn, when turn plans are on: its answer is a list of commands
+ * separated by ';' ("MOVE 3;THROW 1;CODING;TRAINING;RELEASE 12"), the first one being played now and the others in the
+ * next phases, without querying the bot, as long as they can be played. The plan is dropped as soon as a command
+ * cannot be played in its phase (the bot is then queried for that phase) or when the turn ends.
+ * The separator is reserved: when turn plans are on, a ';' in a message starts a new planned command.
+ */
+public class TurnPlan {
+    public static final char SEPARATOR = ';';
+
+    private String[] commands = new String[0];
+    private int nextCommand;
+
+    //keeps the planned commands of the answer (trimmed, the empty ones being skipped), and returns its first command
+    //as it is, to be parsed as an answer without plan
+    public String start(String answer) {
+        clear();
+        int end = answer.indexOf(SEPARATOR);
+        if (end < 0) {
+            return answer;
+        }
+        String[] steps = answer.split(String.valueOf(SEPARATOR));
+        int count = 0;
+        for (int i=1;i<steps.length;++i) {
+            String step = steps[i].trim();
+            if (!step.isEmpty()) {
+                steps[count++] = step;
+            }
+        }
+        commands = new String[count];
+        System.arraycopy(steps, 0, commands, 0, count);
+        return answer.substring(0, end);
+    }
+
+    public boolean hasNext() {
+        return nextCommand < commands.length;
+    }
+
+    //next planned command, to play in the next phase of the turn
+    public String next() {
+        return commands[nextCommand++];
+    }
+
+    //in a phase played without querying the bot, as it had a single possible action: the planned command is consumed if
+    //it is this action (or RANDOM), otherwise the plan was not meant for this phase and is dropped
+    public void followForcedAction(int forcedAction, CommandParser commandParser, PlayerState player, GamePhase gamePhase,
+            List<Application> applications, MatchConfig config) {
+        if (!hasNext()) {
+            return;
+        }
+        try {
+            int action = commandParser.parse(commands[nextCommand], player, gamePhase, applications, config);
+            if (action == forcedAction || ActionCode.getKind(action) == ActionCode.RANDOM) {
+                nextCommand++;
+                return;
+            }
+        } catch (InvalidInputException | GameRuleException e) {
+            //a command of another phase
+        }
+        clear();
+    }
+
+    public void clear() {
+        commands = new String[0];
+        nextCommand = 0;
+    }
+}
@@ -15,13 +15,6 @@ public class Zone {
         id = zoneId;
     }
 
-    public Card getNextCard() {
-        if (cards.size()>0) {
-            return cards.pop();
-        }
-        return Game.getNextBonusCard();
-    }
-
     public int getCardsCount() {
         return cards.size();
     }
@@ -1,18 +1,34 @@
 package com.codingame.game.action;
 
+//an action as an object: a view over its ActionCode, which is what the rules play
 public abstract class Action {
 
-    public static final Action NO_ACTION = new Action() {
+    public static final Action NO_ACTION = new Action(ActionCode.noAction()) {
     };
 
+    protected final int code;
+
+    protected Action(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
     public boolean isMove() {
-        return false;
+        return ActionCode.getKind(code) == ActionCode.MOVE;
     }
-    public boolean isGive() { return false; }
-    public boolean isPlay() { return false; }
-    public boolean isThrow() { return false; }
-    public boolean isRelease() { return false; }
+    public boolean isGive() { return ActionCode.getKind(code) == ActionCode.GIVE; }
+    public boolean isPlay() { return ActionCode.getKind(code) == ActionCode.PLAY; }
+    public boolean isThrow() { return ActionCode.getKind(code) == ActionCode.THROW; }
+    public boolean isRelease() { return ActionCode.getKind(code) == ActionCode.RELEASE; }
     public boolean isWait() {
-        return false;
+        return ActionCode.getKind(code) == ActionCode.WAIT;
+    }
+
+    @Override
+    public String toString() {
+        return ActionCode.toString(code);
     }
 }
@@ -0,0 +1,167 @@
+package com.codingame.game.action;
+
+import com.codingame.game.card.CardType;
+
+/**
+ * Actions packed in an int, so that lists of actions can be generated without allocating anything:
+ * the kind of action in the lowest bits, then up to three 5 bits arguments (card types, zones or application id).
+ */
+public final class ActionCode {
+    public static final int MOVE = 0;
+    public static final int GIVE = 1;
+    public static final int THROW = 2;
+    public static final int PLAY = 3;
+    public static final int RELEASE = 4;
+    public static final int WAIT = 5;
+    //no action chosen yet: playing it does nothing
+    public static final int NO_ACTION = 6;
+    //a bot asking for a random action: it is replaced by a drawn action before being played
+    public static final int RANDOM = 7;
+
+    private static final int KIND_BITS = 3;
+    private static final int KIND_MASK = (1 << KIND_BITS) - 1;
+    private static final int ARGUMENT_BITS = 5;
+    private static final int ARGUMENT_MASK = (1 << ARGUMENT_BITS) - 1;
+    //value of a missing argument
+    public static final int NONE = ARGUMENT_MASK;
+    //number of distinct values of getArguments, to index bitsets
+    public static final int ARGUMENTS_COUNT = 1 << (3 * ARGUMENT_BITS);
+
+    private static final CardType[] CARD_TYPES = CardType.values();
+
+    private ActionCode() {
+    }
+
+    private static int encode(int kind, int first, int second, int third) {
+        return kind
+                | first << KIND_BITS
+                | second << (KIND_BITS + ARGUMENT_BITS)
+                | third << (KIND_BITS + 2 * ARGUMENT_BITS);
+    }
+
+    public static int move(int zoneToMoveId, int zoneToTakeCardId) {
+        return encode(MOVE, zoneToMoveId, zoneToTakeCardId, NONE);
+    }
+
+    public static int give(int cardType) {
+        return encode(GIVE, cardType, NONE, NONE);
+    }
+
+    public static int throwCard(int cardType) {
+        return encode(THROW, cardType, NONE, NONE);
+    }
+
+    public static int play(int cardType) {
+        return encode(PLAY, cardType, NONE, NONE);
+    }
+
+    public static int play(int cardType, int secondaryCardType) {
+        return encode(PLAY, cardType, secondaryCardType, NONE);
+    }
+
+    public static int play(int cardType, int secondaryCardType, int thirdCardType) {
+        return encode(PLAY, cardType, secondaryCardType, thirdCardType);
+    }
+
+    public static int release(int applicationId) {
+        return encode(RELEASE, applicationId, NONE, NONE);
+    }
+
+    public static int waitAction() {
+        return encode(WAIT, NONE, NONE, NONE);
+    }
+
+    public static int noAction() {
+        return encode(NO_ACTION, NONE, NONE, NONE);
+    }
+
+    public static int randomAction() {
+        return encode(RANDOM, NONE, NONE, NONE);
+    }
+
+    public static int getKind(int code) {
+        return code & KIND_MASK;
+    }
+
+    public static int getFirstArgument(int code) {
+        return (code >>> KIND_BITS) & ARGUMENT_MASK;
+    }
+
+    public static int getSecondArgument(int code) {
+        return (code >>> (KIND_BITS + ARGUMENT_BITS)) & ARGUMENT_MASK;
+    }
+
+    public static int getThirdArgument(int code) {
+        return (code >>> (KIND_BITS + 2 * ARGUMENT_BITS)) & ARGUMENT_MASK;
+    }
+
+    //all the arguments of an action, unique among the actions of a same kind
+    public static int getArguments(int code) {
+        return code >>> KIND_BITS;
+    }
+
+    //card type of an argument, null if it is missing
+    public static CardType getCardType(int argument) {
+        return argument == NONE ? null : CARD_TYPES[argument];
+    }
+
+    //the action as an object
+    public static Action toAction(int code) {
+        int first = getFirstArgument(code);
+        switch (getKind(code)) {
+            case MOVE:
+                return new MoveAction(first, getSecondArgument(code));
+            case GIVE:
+                return new GiveAction(CARD_TYPES[first]);
+            case THROW:
+                return new ThrowAction(CARD_TYPES[first]);
+            case PLAY:
+                if (getSecondArgument(code) == NONE) {
+                    return new PlayAction(CARD_TYPES[first]);
+                }
+                if (getThirdArgument(code) == NONE) {
+                    return new PlayAction(CARD_TYPES[first], CARD_TYPES[getSecondArgument(code)]);
+                }
+                return new PlayAction(CARD_TYPES[first], CARD_TYPES[getSecondArgument(code)], CARD_TYPES[getThirdArgument(code)]);
+            case RELEASE:
+                return new ReleaseAction(first);
+            case WAIT:
+                return new WaitAction();
+            default:
+                return Action.NO_ACTION;
+        }
+    }
+
+    //the action as a bot writes it
+    public static String toString(int code) {
+        int first = getFirstArgument(code);
+        int second = getSecondArgument(code);
+        switch (getKind(code)) {
+            case MOVE:
+                return first == second ? "MOVE " + first : "MOVE " + first + " " + second;
+            case GIVE:
+                return "GIVE " + first;
+            case THROW:
+                return "THROW " + first;
+            case PLAY:
+                if (second == NONE) {
+                    return CARD_TYPES[first].toString();
+                }
+                int third = getThirdArgument(code);
+                if (third == NONE) {
+                    return CARD_TYPES[first] + " " + second;
+                }
+                return CARD_TYPES[first] + " " + second + " " + third;
+            case RELEASE:
+                return "RELEASE " + first;
+            case WAIT:
+                return "WAIT";
+            case NO_ACTION:
+                return "NO_ACTION";
+            case RANDOM:
+                return "RANDOM";
+            default:
+                throw new IllegalArgumentException("Unknown action code " + code);
+        }
+    }
+}
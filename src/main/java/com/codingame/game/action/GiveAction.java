@@ -3,18 +3,12 @@ package com.codingame.game.action;
 import com.codingame.game.card.CardType;
 
 public class GiveAction extends Action {
-    protected CardType cardType;
 
     public GiveAction(CardType cardType) {
-        this.cardType = cardType;
-    }
-
-    @Override
-    public boolean isGive() {
-        return true;
+        super(ActionCode.give(cardType.ordinal()));
     }
 
     public CardType getCardType() {
-        return cardType;
+        return ActionCode.getCardType(ActionCode.getFirstArgument(code));
     }
 }
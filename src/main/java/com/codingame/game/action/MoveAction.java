@@ -1,21 +1,14 @@
 package com.codingame.game.action;
 
 public class MoveAction extends Action {
-    protected Integer zoneToMoveId;
-    protected Integer zoneToTakeCardId;
 
     public MoveAction (int zoneToMoveId, int zoneToTakeCardId) {
-        this.zoneToMoveId = zoneToMoveId;
-        this.zoneToTakeCardId = zoneToTakeCardId;
+        super(ActionCode.move(zoneToMoveId, zoneToTakeCardId));
     }
 
-    @Override
-    public boolean isMove() {
-        return true;
+    public int getZoneToMoveId() {
+        return ActionCode.getFirstArgument(code);
     }
 
-    public Integer getZoneToMoveId() {
-        return zoneToMoveId;
-    }
-    public Integer getZoneToTakeCardId() { return zoneToTakeCardId; }
+    public int getZoneToTakeCardId() { return ActionCode.getSecondArgument(code); }
 }
@@ -3,33 +3,24 @@ package com.codingame.game.action;
 import com.codingame.game.card.CardType;
 
 public class PlayAction extends Action {
-    protected CardType actionCardType;
-    protected CardType secondaryCardType;
-    protected CardType thirdCardType;
 
     public PlayAction(CardType cardType) {
-        this.actionCardType = cardType;
+        super(ActionCode.play(cardType.ordinal()));
     }
 
     public PlayAction(CardType cardType, CardType secondaryCardType) {
-        this.actionCardType = cardType;
-        this.secondaryCardType = secondaryCardType;
+        super(ActionCode.play(cardType.ordinal(), secondaryCardType.ordinal()));
     }
 
     public PlayAction(CardType cardType, CardType secondaryCardType, CardType thirdCardType) {
-        this.actionCardType = cardType;
-        this.secondaryCardType = secondaryCardType;
-        this.thirdCardType = thirdCardType;
-    }
-
-    @Override
-    public boolean isPlay() {
-        return true;
+        super(ActionCode.play(cardType.ordinal(), secondaryCardType.ordinal(), thirdCardType.ordinal()));
     }
 
     public CardType getActionCardType() {
-        return actionCardType;
+        return ActionCode.getCardType(ActionCode.getFirstArgument(code));
     }
-    public CardType getSecondaryCardType() { return secondaryCardType; }
-    public CardType getThirdCardType() { return thirdCardType; }
+
+    public CardType getSecondaryCardType() { return ActionCode.getCardType(ActionCode.getSecondArgument(code)); }
+
+    public CardType getThirdCardType() { return ActionCode.getCardType(ActionCode.getThirdArgument(code)); }
 }
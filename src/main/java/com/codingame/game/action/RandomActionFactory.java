@@ -1,67 +1,117 @@
 package com.codingame.game.action;
 
 import com.codingame.game.Config;
-import com.codingame.game.Game;
 import com.codingame.game.Application;
-import com.codingame.game.Player;
+import com.codingame.game.GamePhase;
+import com.codingame.game.MatchConfig;
 
-import com.codingame.game.card.Card;
 import com.codingame.game.card.CardType;
+import com.codingame.game.rules.Pile;
+import com.codingame.game.rules.PlayerState;
 import com.google.inject.Singleton;
 
 import java.util.List;
+import java.util.Random;
 
 @Singleton
 public class RandomActionFactory {
+    //action cards of the hand which can be played, per type
+    private final int[] actionCards = new int[CardType.BONUS.ordinal()];
 
-    public MoveAction createMoveAction(Game game, Player player) {
-        int zoneId=(player.getZoneId() + 1 + game.getRandom().nextInt(Config.ZONES_COUNT-1)) % Config.ZONES_COUNT;
-        return new MoveAction(zoneId, zoneId);
+    //the action played by a bot answering RANDOM in this phase, drawn with the match random generator
+    public int createAction(GamePhase gamePhase, PlayerState player, List<Application> applications, MatchConfig config, Random random) {
+        switch (gamePhase) {
+            case MOVE:
+                return createMoveAction(player, random);
+            case GIVE_CARD:
+                return createGiveAction(player, random);
+            case THROW_CARD:
+                return createThrowAction(player, random);
+            case PLAY_CARD:
+                return createPlayAction(player, config, random);
+            case RELEASE:
+                return createReleaseAction(player, applications, config, random);
+            default:
+                return ActionCode.noAction();
+        }
+    }
+
+    public int createMoveAction(PlayerState player, Random random) {
+        int zoneId=(player.getZoneId() + 1 + random.nextInt(Config.ZONES_COUNT-1)) % Config.ZONES_COUNT;
+        return ActionCode.move(zoneId, zoneId);
     }
 
-    public ReleaseAction createReleaseAction(Game game, Player player) {
-        List<Application> releasableApplications = game.getReleasableApplications(player);
-        int applicationId= releasableApplications.get(game.getRandom().nextInt(releasableApplications.size())).getId();
-        return new ReleaseAction(applicationId);
+    public int createReleaseAction(PlayerState player, List<Application> applications, MatchConfig config, Random random) {
+        int releasableApplicationsCount = 0;
+        for (int i=0;i<applications.size();++i) {
+            if (applications.get(i).canBeReleased(player, config)>=0) {
+                releasableApplicationsCount++;
+            }
+        }
+        int applicationIndex = random.nextInt(releasableApplicationsCount);
+        for (int i=0;i<applications.size();++i) {
+            if (applications.get(i).canBeReleased(player, config)>=0 && applicationIndex-- == 0) {
+                return ActionCode.release(applications.get(i).getId());
+            }
+        }
+        throw new IllegalStateException("No application to release");
     }
 
-    public GiveAction createGiveAction(Game game, Player player) {
-        List<Card> giveableCards = player.getNonTechnicalDebtCardsInHand();
-        CardType cardType=giveableCards.get(game.getRandom().nextInt(giveableCards.size())).getCardType();
-        return new GiveAction(cardType);
+    public int createGiveAction(PlayerState player, Random random) {
+        return ActionCode.give(pickNonTechnicalDebtCardInHand(player, random).ordinal());
     }
 
-    public Action createPlayAction(Game game, Player player) {
-        List<Card> actionCards = player.getActionCardsInHand();
-        if (!Config.CAN_PLAY_COMPLEX_CARDS) {
-            actionCards = player.getSimpleActionCardsInHand();
+    public int createPlayAction(PlayerState player, MatchConfig config, Random random) {
+        int[] hand = player.getCards(Pile.HAND);
+        int actionCardsCount = 0;
+        for (int type=0;type<actionCards.length;++type) {
+            if (config.canPlayComplexCards() || PlayerState.isSimpleActionCard(CardType.values()[type])) {
+                actionCards[type] = hand[type];
+                actionCardsCount += hand[type];
+            } else {
+                actionCards[type] = 0;
+            }
         }
-        if (actionCards.size()==0) return new WaitAction();
-        Card cardToPlay=actionCards.get(game.getRandom().nextInt(actionCards.size()));
-        actionCards.remove(cardToPlay);
-        if (cardToPlay.getCardType()==CardType.CONTINUOUS_INTEGRATION || cardToPlay.getCardType()==CardType.TASK_PRIORITIZATION) {
-            if (actionCards.size()==0){
-                return new WaitAction();
+        if (actionCardsCount==0) return ActionCode.waitAction();
+        CardType cardToPlay=pickCard(actionCards, random.nextInt(actionCardsCount));
+        actionCards[cardToPlay.ordinal()]--;
+        actionCardsCount--;
+        if (cardToPlay==CardType.CONTINUOUS_INTEGRATION || cardToPlay==CardType.TASK_PRIORITIZATION) {
+            if (actionCardsCount==0){
+                return ActionCode.waitAction();
             }
-            Card secondaryCard=actionCards.get(game.getRandom().nextInt(actionCards.size()));
-            actionCards.remove(secondaryCard);
-            if (cardToPlay.getCardType()==CardType.TASK_PRIORITIZATION) {
-                int zoneId=game.getRandom().nextInt(Config.ZONES_COUNT);
-                return new PlayAction(cardToPlay.getCardType(), secondaryCard.getCardType(), CardType.values()[zoneId]);
+            CardType secondaryCard=pickCard(actionCards, random.nextInt(actionCardsCount));
+            if (cardToPlay==CardType.TASK_PRIORITIZATION) {
+                int zoneId=random.nextInt(Config.ZONES_COUNT);
+                return ActionCode.play(cardToPlay.ordinal(), secondaryCard.ordinal(), zoneId);
             }
-            return new PlayAction(cardToPlay.getCardType(), secondaryCard.getCardType());
+            return ActionCode.play(cardToPlay.ordinal(), secondaryCard.ordinal());
         }
-        return new PlayAction(cardToPlay.getCardType());
+        return ActionCode.play(cardToPlay.ordinal());
+    }
+
+    public int createThrowAction(PlayerState player, Random random) {
+        return ActionCode.throwCard(pickNonTechnicalDebtCardInHand(player, random).ordinal());
     }
 
-    public ThrowAction createThrowAction(Game game, Player player) {
-        List<Card> throwableCards = player.getNonTechnicalDebtCardsInHand();
-        CardType cardType=throwableCards.get(game.getRandom().nextInt(throwableCards.size())).getCardType();
-        return new ThrowAction(cardType);
+    private CardType pickNonTechnicalDebtCardInHand(PlayerState player, Random random) {
+        int cardId = random.nextInt(player.getNonTechnicalDebtCardsInHandCount());
+        return pickCard(player.getCards(Pile.HAND), cardId);
+    }
+
+    //type of the card at this position when the cards are sorted by type
+    private CardType pickCard(int[] cards, int cardId) {
+        for (int type=0;type<cards.length;++type) {
+            cardId -= cards[type];
+            if (cardId < 0) {
+                return CardType.values()[type];
+            }
+        }
+        throw new IllegalArgumentException("No card " + cardId);
     }
 
-    public WaitAction createWaitAction(Game game, Player player) {
-        return new WaitAction();
+    public int createWaitAction() {
+        return ActionCode.waitAction();
     }
 }
 
@@ -1,18 +1,12 @@
 package com.codingame.game.action;
 
 public class ReleaseAction extends Action {
-    protected Integer applicationId;
 
     public ReleaseAction(int applicationId) {
-        this.applicationId = applicationId;
+        super(ActionCode.release(applicationId));
     }
 
-    @Override
-    public boolean isRelease() {
-        return true;
-    }
-
-    public Integer getApplicationId() {
-        return applicationId;
+    public int getApplicationId() {
+        return ActionCode.getFirstArgument(code);
     }
 }
@@ -3,18 +3,12 @@ package com.codingame.game.action;
 import com.codingame.game.card.CardType;
 
 public class ThrowAction extends Action {
-    protected CardType cardType;
 
     public ThrowAction(CardType cardType) {
-        this.cardType = cardType;
-    }
-
-    @Override
-    public boolean isThrow() {
-        return true;
+        super(ActionCode.throwCard(cardType.ordinal()));
     }
 
     public CardType getCardType() {
-        return cardType;
+        return ActionCode.getCardType(ActionCode.getFirstArgument(code));
     }
 }
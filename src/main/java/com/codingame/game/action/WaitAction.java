@@ -3,11 +3,6 @@ package com.codingame.game.action;
 public class WaitAction extends Action {
 
     public WaitAction() {
-
-    }
-
-    @Override
-    public boolean isWait() {
-        return true;
+        super(ActionCode.waitAction());
     }
 }
@@ -0,0 +1,211 @@
+package com.codingame.game.replay;
+
+import com.codingame.game.LeagueRules;
+import com.codingame.game.MatchConfig;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The record of a two players match: the rules are deterministic given the seed, so the seed, the rules and the
+ * action of the active player in every frame are enough to play the match again.
+ * The result (scores as computed by the referee, releases, technical debts, disqualifications) and a hash chained over
+ * the state after every frame are kept too, to check that a replay ends the same way.
+ * <p>
+ * Binary layout of a record, big-endian:
+ * <pre>
+ * int    size of the record in bytes, this field included
+ * byte   version
+ * long   seed
+ * byte   league level
+ * byte*4 small applications, big applications, applications to win, cards per zone
+ * byte   rule flags (give card if too close, simple cards, lose cards at end of cycle, complex cards)
+ * int*2  scores
+ * short*2 releases
+ * short*2 technical debts
+ * byte   disqualified flags
+ * long   state hash chain
+ * short  frames count
+ * 3 bytes per frame: the ActionCode played, and the RANDOM and DISQUALIFIED flags
+ * </pre>
+ */
+public class Replay {
+    public static final byte VERSION = 1;
+    public static final int PLAYERS_COUNT = 2;
+
+    //a frame is the ActionCode on 18 bits and two flags
+    private static final int ACTION_MASK = (1 << 18) - 1;
+    //the bot asked for RANDOM: the action was drawn from the game random
+    private static final int RANDOM_FLAG = 1 << 18;
+    //the bot was disqualified in this frame (the last one), after trying the action if it could be parsed
+    private static final int DISQUALIFIED_FLAG = 1 << 19;
+    static final int FRAME_SIZE = 3;
+
+    static final int SIZE_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int SEED_OFFSET = 5;
+    static final int LEAGUE_OFFSET = 13;
+    static final int CONFIG_OFFSET = 14;
+    static final int RULE_FLAGS_OFFSET = 18;
+    static final int SCORES_OFFSET = 19;
+    static final int RELEASES_OFFSET = 27;
+    static final int TECHNICAL_DEBTS_OFFSET = 31;
+    static final int DISQUALIFIED_OFFSET = 35;
+    static final int STATE_HASH_OFFSET = 36;
+    static final int FRAMES_COUNT_OFFSET = 44;
+    static final int FRAMES_OFFSET = 46;
+
+    //configurations by league and rules bytes, there are only a few of them
+    private static final Map<Long, MatchConfig> CONFIGS = new ConcurrentHashMap<>();
+
+    private final long seed;
+    private final int leagueLevel;
+    private final MatchConfig config;
+    private final int[] scores;
+    private final int[] releases;
+    private final int[] technicalDebts;
+    private final boolean[] disqualified;
+    private final long stateHash;
+    private final int[] frames;
+
+    public Replay(long seed, int leagueLevel, MatchConfig config, int[] scores, int[] releases, int[] technicalDebts,
+                  boolean[] disqualified, long stateHash, int[] frames) {
+        this.seed = seed;
+        this.leagueLevel = leagueLevel;
+        this.config = config;
+        this.scores = scores;
+        this.releases = releases;
+        this.technicalDebts = technicalDebts;
+        this.disqualified = disqualified;
+        this.stateHash = stateHash;
+        this.frames = frames;
+    }
+
+    public static int frame(int action, boolean random, boolean disqualified) {
+        return (action & ACTION_MASK) | (random ? RANDOM_FLAG : 0) | (disqualified ? DISQUALIFIED_FLAG : 0);
+    }
+
+    public static int getFrameAction(int frame) {
+        return frame & ACTION_MASK;
+    }
+
+    public static boolean isRandomFrame(int frame) {
+        return (frame & RANDOM_FLAG) != 0;
+    }
+
+    public static boolean isDisqualificationFrame(int frame) {
+        return (frame & DISQUALIFIED_FLAG) != 0;
+    }
+
+    //the hash chain after a frame leading to a state of this hash
+    public static long chainStateHash(long stateHash, long frameStateHash) {
+        return stateHash * 0x9E3779B97F4A7C15L + frameStateHash;
+    }
+
+    //configBytes are the 4 counts then the rule flags
+    static MatchConfig getConfig(int leagueLevel, byte[] configBytes) {
+        long key = leagueLevel;
+        for (byte configByte : configBytes) {
+            key = key << 8 | (configByte & 0xFF);
+        }
+        return CONFIGS.computeIfAbsent(key, k -> fromBytes(leagueLevel, configBytes));
+    }
+
+    //the configuration of the league overridden by the recorded rules
+    private static MatchConfig fromBytes(int leagueLevel, byte[] configBytes) {
+        Properties params = new Properties();
+        params.setProperty("SMALL_APPLICATIONS_COUNT", Integer.toString(configBytes[0]));
+        params.setProperty("BIG_APPLICATIONS_COUNT", Integer.toString(configBytes[1]));
+        params.setProperty("APPLICATIONS_TO_WIN", Integer.toString(configBytes[2]));
+        params.setProperty("CARDS_PER_ZONE", Integer.toString(configBytes[3]));
+        params.setProperty("GIVE_CARD_IF_TOO_CLOSE_TO_OPPONENT", Boolean.toString((configBytes[4] & 1) != 0));
+        params.setProperty("CAN_PLAY_SIMPLE_CARDS", Boolean.toString((configBytes[4] & 2) != 0));
+        params.setProperty("LOSE_CARDS_AT_END_OF_CYCLE", Boolean.toString((configBytes[4] & 4) != 0));
+        params.setProperty("CAN_PLAY_COMPLEX_CARDS", Boolean.toString((configBytes[4] & 8) != 0));
+        return MatchConfig.fromLeague(LeagueRules.fromIndex(leagueLevel)).apply(params);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getLeagueLevel() {
+        return leagueLevel;
+    }
+
+    public MatchConfig getConfig() {
+        return config;
+    }
+
+    public int getScore(int playerId) {
+        return scores[playerId];
+    }
+
+    public int getReleases(int playerId) {
+        return releases[playerId];
+    }
+
+    public int getTechnicalDebt(int playerId) {
+        return technicalDebts[playerId];
+    }
+
+    public boolean isDisqualified(int playerId) {
+        return disqualified[playerId];
+    }
+
+    public long getStateHash() {
+        return stateHash;
+    }
+
+    public int getFramesCount() {
+        return frames.length;
+    }
+
+    public int getFrame(int frameId) {
+        return frames[frameId];
+    }
+
+    public int getSize() {
+        return FRAMES_OFFSET + FRAME_SIZE * frames.length;
+    }
+
+    public void write(ByteBuffer buffer) {
+        buffer.putInt(getSize());
+        buffer.put(VERSION);
+        buffer.putLong(seed);
+        buffer.put((byte) leagueLevel);
+        buffer.put((byte) config.getSmallApplicationsCount());
+        buffer.put((byte) config.getBigApplicationsCount());
+        buffer.put((byte) config.getApplicationsToWin());
+        buffer.put((byte) config.getCardsPerZone());
+        buffer.put((byte) ((config.giveCardIfTooCloseToOpponent() ? 1 : 0)
+                | (config.canPlaySimpleCards() ? 2 : 0)
+                | (config.loseCardsAtEndOfCycle() ? 4 : 0)
+                | (config.canPlayComplexCards() ? 8 : 0)));
+        for (int i=0;i<PLAYERS_COUNT;++i) {
+            buffer.putInt(scores[i]);
+        }
+        for (int i=0;i<PLAYERS_COUNT;++i) {
+            buffer.putShort((short) releases[i]);
+        }
+        for (int i=0;i<PLAYERS_COUNT;++i) {
+            buffer.putShort((short) technicalDebts[i]);
+        }
+        buffer.put((byte) ((disqualified[0] ? 1 : 0) | (disqualified[1] ? 2 : 0)));
+        buffer.putLong(stateHash);
+        buffer.putShort((short) frames.length);
+        for (int frame : frames) {
+            buffer.put((byte) (frame >>> 16));
+            buffer.putShort((short) frame);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("seed %d, league %d, scores %d/%d, %d frames: %s", seed, leagueLevel, scores[0], scores[1],
+                frames.length, Arrays.toString(frames));
+    }
+}
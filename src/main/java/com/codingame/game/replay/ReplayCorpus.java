@@ -0,0 +1,124 @@
+package com.codingame.game.replay;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A file of replays read through memory mapping: the records are read in place by {@link ReplayView}s, so a corpus of
+ * any size is scanned without being loaded on the heap. The file is mapped by windows of at most 1 GB, a record never
+ * spanning two windows.
+ */
+public class ReplayCorpus implements Closeable {
+    private static final long WINDOW_SIZE = 1L << 30;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final long size;
+
+    public ReplayCorpus(File file) throws IOException {
+        this.file = new RandomAccessFile(file, "r");
+        this.channel = this.file.getChannel();
+        this.size = channel.size();
+    }
+
+    //size of the file in bytes
+    public long getSize() {
+        return size;
+    }
+
+    //a cursor over the records from the start of the file
+    public Cursor cursor() {
+        return new Cursor(0, size);
+    }
+
+    //a cursor over the records starting in [from, to), from being the start of a record
+    public Cursor cursor(long from, long to) {
+        return new Cursor(from, to);
+    }
+
+    /**
+     * Offsets splitting the file into partsCount ranges of records of about the same size, the file size included last:
+     * the ranges can be read in parallel by one cursor each. Only the record sizes are read.
+     */
+    public long[] split(int partsCount) throws IOException {
+        long[] bounds = new long[partsCount + 1];
+        Cursor cursor = cursor();
+        int part = 1;
+        while (part < partsCount && cursor.next()) {
+            while (part < partsCount && cursor.getOffset() >= part * size / partsCount) {
+                bounds[part++] = cursor.getOffset();
+            }
+        }
+        while (part <= partsCount) {
+            bounds[part++] = size;
+        }
+        return bounds;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    /**
+     * Reads the records one after the other, the view of the current one being reused: it is only valid until next()
+     * is called again. A cursor is used by one thread.
+     */
+    public class Cursor {
+        private final long end;
+        private final ReplayView view = new ReplayView();
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long offset;
+        private long nextOffset;
+
+        private Cursor(long from, long to) {
+            this.nextOffset = from;
+            this.end = to;
+        }
+
+        //moves to the next record, false at the end of the range
+        public boolean next() throws IOException {
+            if (nextOffset >= end) {
+                return false;
+            }
+            offset = nextOffset;
+            if (offset + Replay.FRAMES_OFFSET > size) {
+                //cut inside the header, as by a writer which was not closed
+                throw new IOException("Corrupted replay at offset " + offset);
+            }
+            map(offset, Replay.FRAMES_OFFSET);
+            int recordSize = window.getInt((int) (offset - windowStart) + Replay.SIZE_OFFSET);
+            int framesCount = window.getShort((int) (offset - windowStart) + Replay.FRAMES_COUNT_OFFSET) & 0xFFFF;
+            //the frames must fill the record, else they would be read from the next one
+            if (recordSize != Replay.FRAMES_OFFSET + Replay.FRAME_SIZE * framesCount || offset + recordSize > size) {
+                throw new IOException("Corrupted replay at offset " + offset);
+            }
+            map(offset, recordSize);
+            view.set(window, (int) (offset - windowStart));
+            nextOffset = offset + recordSize;
+            return true;
+        }
+
+        //maps the window containing [from, from + length)
+        private void map(long from, int length) throws IOException {
+            if (window == null || from < windowStart || from + length > windowStart + window.capacity()) {
+                windowStart = from;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, from, Math.min(WINDOW_SIZE, size - from));
+            }
+        }
+
+        //offset of the current record in the file
+        public long getOffset() {
+            return offset;
+        }
+
+        public ReplayView getReplay() {
+            return view;
+        }
+    }
+}
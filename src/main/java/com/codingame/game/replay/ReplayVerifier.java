@@ -0,0 +1,124 @@
+package com.codingame.game.replay;
+
+import com.codingame.game.ApplicationFactory;
+import com.codingame.game.Config;
+import com.codingame.game.MatchConfig;
+import com.codingame.game.action.ActionCode;
+import com.codingame.game.action.RandomActionFactory;
+import com.codingame.game.rules.GameState;
+import com.codingame.game.rules.PlayerState;
+import com.codingame.game.rules.Rules;
+import com.codingame.game.rules.RulesListener;
+import com.codingame.game.tournament.MatchResult;
+
+/**
+ * Plays a replay again with the rules, without any bot, and checks that it ends as recorded: same random actions,
+ * same state after every frame (through the hash chain), same releases, technical debts, disqualifications and scores
+ * (tie-breaker included). The frames are played as by {@link com.codingame.game.tournament.Match}.
+ * A verifier is used by one thread.
+ */
+public class ReplayVerifier {
+    private static final int APPLICATIONS_COUNT = new ApplicationFactory().getApplicationsCount();
+
+    private final RandomActionFactory randomActionFactory = new RandomActionFactory();
+    private final RulesListener listener;
+
+    //the listener follows the rules of the replays, as in the live games
+    public ReplayVerifier(RulesListener listener) {
+        this.listener = listener;
+    }
+
+    public ReplayVerifier() {
+        this(RulesListener.NONE);
+    }
+
+    //null if the replay ends as recorded, else what differs
+    public String verify(ReplayView replay) {
+        if (replay.getVersion() != Replay.VERSION) {
+            return "unknown version " + replay.getVersion();
+        }
+        GameState state = new GameState();
+        Rules rules;
+        try {
+            MatchConfig config = replay.getConfig();
+            if (config.getApplicationsCount() > APPLICATIONS_COUNT) {
+                //the rules would draw distinct applications forever
+                return "cannot start the game: " + config.getApplicationsCount() + " applications";
+            }
+            rules = new Rules(config, state, listener);
+            rules.init(replay.getSeed(), Replay.PLAYERS_COUNT);
+        } catch (RuntimeException e) {
+            //corrupted league or configuration bytes
+            return "cannot start the game: " + e;
+        }
+        boolean[] disqualified = new boolean[Replay.PLAYERS_COUNT];
+        int[] releases = new int[Replay.PLAYERS_COUNT];
+        long stateHash = 0;
+
+        int framesCount = replay.getFramesCount();
+        for (int frameId=0;frameId<framesCount;++frameId) {
+            if (state.isGameOver()) {
+                return "game over before frame " + frameId;
+            }
+            int frame = replay.getFrame(frameId);
+            int playerId = state.getActivePlayerId();
+            PlayerState player = state.getActivePlayer();
+            int action = Replay.getFrameAction(frame);
+            boolean disqualification = Replay.isDisqualificationFrame(frame);
+            try {
+                if (Replay.isRandomFrame(frame)) {
+                    int randomAction = randomActionFactory.createAction(state.getGamePhase(), player, state.getApplications(),
+                            rules.getConfig(), state.getRandom());
+                    if (randomAction != action) {
+                        return String.format("frame %d: random action %s instead of %s", frameId,
+                                ActionCode.toString(randomAction), ActionCode.toString(action));
+                    }
+                }
+                if (ActionCode.getKind(action) != ActionCode.NO_ACTION) {
+                    rules.performAction(player, action);
+                }
+            } catch (RuntimeException e) {
+                if (!disqualification) {
+                    return String.format("frame %d: %s refused (%s)", frameId, ActionCode.toString(action), e);
+                }
+            }
+            if (disqualification) {
+                disqualified[playerId] = true;
+                releases[playerId] = player.getScore();
+                player.setScore(-1);
+            }
+            rules.nextPhase();
+            stateHash = Replay.chainStateHash(stateHash, state.getHash());
+            if (disqualification && frameId != framesCount - 1) {
+                return "frames after the disqualification of frame " + frameId;
+            }
+        }
+        if (stateHash != replay.getStateHash()) {
+            return "different states";
+        }
+        boolean ended = state.isGameOver() || framesCount == Config.MAX_TURNS || disqualified[0] || disqualified[1];
+        if (!ended) {
+            return "game not over after " + framesCount + " frames";
+        }
+
+        int[] technicalDebts = new int[Replay.PLAYERS_COUNT];
+        for (int i=0;i<Replay.PLAYERS_COUNT;++i) {
+            if (!disqualified[i]) {
+                releases[i] = state.getPlayer(i).getScore();
+            }
+            technicalDebts[i] = state.getPlayer(i).getTechnicalDebtCardsCount();
+        }
+        MatchResult result = MatchResult.score(releases, technicalDebts, disqualified);
+        for (int i=0;i<Replay.PLAYERS_COUNT;++i) {
+            if (result.isDisqualified(i) != replay.isDisqualified(i)
+                    || result.getReleases(i) != replay.getReleases(i)
+                    || result.getTechnicalDebt(i) != replay.getTechnicalDebt(i)
+                    || result.getScore(i) != replay.getScore(i)) {
+                return String.format("player %d: %d releases, %d technical debts, score %d%s instead of %d, %d, %d%s", i,
+                        result.getReleases(i), result.getTechnicalDebt(i), result.getScore(i), result.isDisqualified(i) ? " (disqualified)" : "",
+                        replay.getReleases(i), replay.getTechnicalDebt(i), replay.getScore(i), replay.isDisqualified(i) ? " (disqualified)" : "");
+            }
+        }
+        return null;
+    }
+}
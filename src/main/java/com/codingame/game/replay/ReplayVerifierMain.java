@@ -0,0 +1,111 @@
+package com.codingame.game.replay;
+
+import com.codingame.game.stats.GameStats;
+import com.codingame.game.stats.GameStatsCollector;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Command line verification of replay files:
+ * <pre>ReplayVerifierMain [--threads T] [--max-reports N] [--stats] file1 [file2...]</pre>
+ * Every file is split into T ranges verified in parallel by a {@link ReplayVerifier} each. The first N mismatches are
+ * printed with their file, offset and seed; the exit status is 1 when there is any.
+ * With --stats, the {@link GameStats} of the verified replays are printed too.
+ */
+public class ReplayVerifierMain {
+    public static void main(String[] args) throws Exception {
+        int threadsCount = Runtime.getRuntime().availableProcessors();
+        int maxReportsCount = 20;
+        boolean printStats = false;
+        List<File> files = new ArrayList<>();
+        for (int i=0;i<args.length;++i) {
+            switch (args[i]) {
+                case "--threads":
+                    threadsCount = Integer.parseInt(args[++i]);
+                    break;
+                case "--max-reports":
+                    maxReportsCount = Integer.parseInt(args[++i]);
+                    break;
+                case "--stats":
+                    printStats = true;
+                    break;
+                default:
+                    files.add(new File(args[i]));
+            }
+        }
+        if (files.isEmpty()) {
+            System.err.println("Usage: ReplayVerifierMain [--threads T] [--max-reports N] [--stats] file1 [file2...]");
+            System.exit(1);
+        }
+
+        AtomicLong verifiedCount = new AtomicLong();
+        AtomicInteger mismatchesCount = new AtomicInteger();
+        int maxReports = maxReportsCount;
+        GameStats stats = new GameStats();
+        ExecutorService executor = Executors.newFixedThreadPool(threadsCount);
+        long start = System.nanoTime();
+        try {
+            List<ReplayCorpus> corpora = new ArrayList<>();
+            List<Future<?>> parts = new ArrayList<>();
+            try {
+                for (File file : files) {
+                    ReplayCorpus corpus = new ReplayCorpus(file);
+                    corpora.add(corpus);
+                    long[] bounds = corpus.split(threadsCount);
+                    for (int i=0;i<threadsCount;++i) {
+                        if (bounds[i] == bounds[i + 1]) {
+                            continue;
+                        }
+                        ReplayCorpus.Cursor cursor = corpus.cursor(bounds[i], bounds[i + 1]);
+                        parts.add(executor.submit(() -> {
+                            GameStatsCollector statsCollector = new GameStatsCollector();
+                            ReplayVerifier verifier = new ReplayVerifier(statsCollector);
+                            while (cursor.next()) {
+                                ReplayView replay = cursor.getReplay();
+                                String mismatch = verifier.verify(replay);
+                                verifiedCount.incrementAndGet();
+                                if (mismatch == null && !replay.isDisqualified(0) && !replay.isDisqualified(1)) {
+                                    statsCollector.endGame(new int[] { replay.getTechnicalDebt(0), replay.getTechnicalDebt(1) });
+                                } else {
+                                    //as with the tournament runner, a game cut short by a disqualification does not count
+                                    statsCollector.discardGame();
+                                }
+                                if (mismatch != null && mismatchesCount.incrementAndGet() <= maxReports) {
+                                    System.out.println(String.format("%s@%d (seed %d): %s", file, cursor.getOffset(),
+                                            replay.getSeed(), mismatch));
+                                }
+                            }
+                            stats.merge(statsCollector.getStats());
+                            return null;
+                        }));
+                    }
+                }
+                for (Future<?> part : parts) {
+                    part.get();
+                }
+            } finally {
+                for (ReplayCorpus corpus : corpora) {
+                    corpus.close();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format("%d replays verified in %.1fs on %d threads (%.0f replays/s), %d mismatches",
+                verifiedCount.get(), seconds, threadsCount, verifiedCount.get() / seconds, mismatchesCount.get()));
+        if (printStats) {
+            stats.print(System.out);
+        }
+        if (mismatchesCount.get() > 0) {
+            System.exit(1);
+        }
+    }
+}
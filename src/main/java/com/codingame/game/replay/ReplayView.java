@@ -0,0 +1,88 @@
+package com.codingame.game.replay;
+
+import com.codingame.game.MatchConfig;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A replay read in place from the bytes of a corpus: nothing is copied, nor allocated once the configurations are known.
+ */
+public class ReplayView {
+    private final byte[] configBytes = new byte[5];
+    private ByteBuffer buffer;
+    private int start;
+
+    void set(ByteBuffer buffer, int start) {
+        this.buffer = buffer;
+        this.start = start;
+    }
+
+    public int getVersion() {
+        return buffer.get(start + Replay.VERSION_OFFSET);
+    }
+
+    public long getSeed() {
+        return buffer.getLong(start + Replay.SEED_OFFSET);
+    }
+
+    public int getLeagueLevel() {
+        return buffer.get(start + Replay.LEAGUE_OFFSET);
+    }
+
+    public MatchConfig getConfig() {
+        for (int i=0;i<configBytes.length;++i) {
+            configBytes[i] = buffer.get(start + Replay.CONFIG_OFFSET + i);
+        }
+        return Replay.getConfig(getLeagueLevel(), configBytes);
+    }
+
+    public int getScore(int playerId) {
+        return buffer.getInt(start + Replay.SCORES_OFFSET + 4 * playerId);
+    }
+
+    public int getReleases(int playerId) {
+        return buffer.getShort(start + Replay.RELEASES_OFFSET + 2 * playerId);
+    }
+
+    public int getTechnicalDebt(int playerId) {
+        return buffer.getShort(start + Replay.TECHNICAL_DEBTS_OFFSET + 2 * playerId);
+    }
+
+    public boolean isDisqualified(int playerId) {
+        return (buffer.get(start + Replay.DISQUALIFIED_OFFSET) & (1 << playerId)) != 0;
+    }
+
+    public long getStateHash() {
+        return buffer.getLong(start + Replay.STATE_HASH_OFFSET);
+    }
+
+    public int getFramesCount() {
+        return buffer.getShort(start + Replay.FRAMES_COUNT_OFFSET) & 0xFFFF;
+    }
+
+    //see Replay.getFrameAction, isRandomFrame and isDisqualificationFrame
+    public int getFrame(int frameId) {
+        int frameOffset = start + Replay.FRAMES_OFFSET + Replay.FRAME_SIZE * frameId;
+        return (buffer.get(frameOffset) & 0xFF) << 16 | (buffer.getShort(frameOffset + 1) & 0xFFFF);
+    }
+
+    //a copy of the replay on the heap
+    public Replay toReplay() {
+        int[] scores = new int[Replay.PLAYERS_COUNT];
+        int[] releases = new int[Replay.PLAYERS_COUNT];
+        int[] technicalDebts = new int[Replay.PLAYERS_COUNT];
+        boolean[] disqualified = new boolean[Replay.PLAYERS_COUNT];
+        for (int i=0;i<Replay.PLAYERS_COUNT;++i) {
+            scores[i] = getScore(i);
+            releases[i] = getReleases(i);
+            technicalDebts[i] = getTechnicalDebt(i);
+            disqualified[i] = isDisqualified(i);
+        }
+        int[] frames = new int[getFramesCount()];
+        for (int i=0;i<frames.length;++i) {
+            frames[i] = getFrame(i);
+        }
+        return new Replay(getSeed(), getLeagueLevel(), getConfig(), scores, releases, technicalDebts, disqualified,
+                getStateHash(), frames);
+    }
+}
@@ -0,0 +1,57 @@
+package com.codingame.game.replay;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Appends replays to a corpus file, from any thread. The records are buffered, so the file is complete once closed.
+ */
+public class ReplayWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    public ReplayWriter(File file) throws IOException {
+        channel = new FileOutputStream(file, true).getChannel();
+    }
+
+    public synchronized void write(Replay replay) throws IOException {
+        if (buffer.remaining() < replay.getSize()) {
+            flush();
+        }
+        if (buffer.remaining() < replay.getSize()) {
+            ByteBuffer record = ByteBuffer.allocate(replay.getSize());
+            replay.write(record);
+            record.flip();
+            writeFully(record);
+        } else {
+            replay.write(buffer);
+        }
+    }
+
+    public synchronized void flush() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
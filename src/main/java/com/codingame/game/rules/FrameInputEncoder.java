@@ -0,0 +1,403 @@
+package com.codingame.game.rules;
+
+import com.codingame.game.Application;
+import com.codingame.game.Config;
+import com.codingame.game.GamePhase;
+import com.codingame.game.action.ActionCode;
+import com.codingame.game.card.CardType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes the input of a turn (the game phase line then {@link Rules#getCurrentFrameInfoFor}, every line ending with
+ * '\n') in a reusable byte buffer: the bytes are the same, but the numbers are formatted by hand and nothing is
+ * allocated once the buffer is large enough. An encoder is used by one thread, for one player.
+ * <p>
+ * With the delta input, after a whole input, the next ones only hold what changed since the previous one:
+ * <pre>
+ * game phase
+ * DELTA checksum              (see {@link #checksum})
+ * removed applications count
+ * removed application id      (one line each)
+ * player line, opponent line  (as in a whole input)
+ * changed card locations count
+ * card location line          (as in a whole input, with zeros when it is now empty)
+ * possible actions count
+ * possible action             (as in a whole input)
+ * </pre>
+ */
+public class FrameInputEncoder {
+    private static final byte[][] GAME_PHASES = names(GamePhase.values());
+    private static final byte[][] CARD_TYPES = names(CardType.values());
+    private static final byte[] APPLICATION = bytes("APPLICATION ");
+    //the piles sent to their owner then the opponent cards (hand, draw and discard) and automated cards, in this order
+    private static final Pile[] PILES = { Pile.HAND, Pile.DRAW, Pile.DISCARD, Pile.PLAYED_CARDS, Pile.AUTOMATED };
+    private static final int OPPONENT_CARDS = PILES.length;
+    private static final int LOCATIONS_COUNT = PILES.length + 2;
+    private static final byte[][] LOCATION_NAMES = {
+            bytes("HAND"), bytes("DRAW"), bytes("DISCARD"), bytes("PLAYED_CARDS"), bytes("AUTOMATED"),
+            bytes("OPPONENT_CARDS"), bytes("OPPONENT_AUTOMATED")
+    };
+    private static final byte[] DELTA = bytes("DELTA ");
+    private static final byte[] MOVE = bytes("MOVE ");
+    private static final byte[] GIVE = bytes("GIVE ");
+    private static final byte[] THROW = bytes("THROW ");
+    private static final byte[] RELEASE = bytes("RELEASE ");
+    private static final byte[] WAIT = bytes("WAIT");
+    private static final byte[] RANDOM = bytes("RANDOM");
+    private static final int CARD_TYPES_COUNT = CARD_TYPES.length;
+
+    private byte[] buffer = new byte[4096];
+    private int length;
+    private final int[] possibleActions = new int[Rules.MAX_POSSIBLE_ACTIONS];
+    //what the player was last sent, for the deltas (applications as a bit per id)
+    private boolean sent;
+    private long sentApplications;
+    private final int[][] sentLocations = new int[LOCATIONS_COUNT][CARD_TYPES_COUNT];
+    private final int[] locationCards = new int[CARD_TYPES_COUNT];
+    private final int[] changedLocations = new int[LOCATIONS_COUNT];
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[][] names(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (int i=0;i<values.length;++i) {
+            names[i] = bytes(values[i].name());
+        }
+        return names;
+    }
+
+    //encodes the whole turn input of the player, returns its length
+    public int encode(Rules rules, PlayerState player, GamePhase gamePhase) {
+        GameState state = rules.getState();
+        PlayerState opponentPlayer = state.getOpponent(player);
+        length = 0;
+        write(GAME_PHASES[gamePhase.ordinal()]);
+        endLine();
+
+        //objectives data
+        List<Application> applications = state.getApplications();
+        writeInt(applications.size());
+        endLine();
+        sentApplications = 0;
+        for (int i=0;i<applications.size();++i) {
+            Application application = applications.get(i);
+            write(APPLICATION);
+            writeInt(application.getId());
+            for (int zoneId=0;zoneId<Config.ZONES_COUNT;++zoneId) {
+                writeByte(' ');
+                writeInt(application.getResourcesNeeded(zoneId));
+            }
+            endLine();
+            sentApplications |= 1L << application.getId();
+        }
+
+        //player information, receiving player first
+        writePlayer(player);
+        writePlayer(opponentPlayer);
+
+        //card locations: the empty piles are not sent, but the opponent cards are
+        int locationsCount = 0;
+        for (int location=0;location<LOCATIONS_COUNT;++location) {
+            fillLocation(location, player, opponentPlayer, sentLocations[location]);
+            if (location == OPPONENT_CARDS || !isEmpty(sentLocations[location])) {
+                locationsCount++;
+            }
+        }
+        writeInt(locationsCount);
+        endLine();
+        for (int location=0;location<LOCATIONS_COUNT;++location) {
+            if (location == OPPONENT_CARDS || !isEmpty(sentLocations[location])) {
+                writeCards(LOCATION_NAMES[location], sentLocations[location]);
+            }
+        }
+        sent = true;
+
+        writePossibleActions(rules, player, gamePhase);
+        return length;
+    }
+
+    /**
+     * Encodes the turn input of the player as changes since the last input encoded by {@link #encode} or by this
+     * method (the whole input if there is none), returns its length.
+     */
+    public int encodeDelta(Rules rules, PlayerState player, GamePhase gamePhase) {
+        if (!sent) {
+            return encode(rules, player, gamePhase);
+        }
+        GameState state = rules.getState();
+        PlayerState opponentPlayer = state.getOpponent(player);
+        length = 0;
+        write(GAME_PHASES[gamePhase.ordinal()]);
+        endLine();
+        write(DELTA);
+        writeInt(checksum(state, player));
+        endLine();
+
+        //removed applications
+        List<Application> applications = state.getApplications();
+        long remainingApplications = 0;
+        for (int i=0;i<applications.size();++i) {
+            remainingApplications |= 1L << applications.get(i).getId();
+        }
+        long removedApplications = sentApplications & ~remainingApplications;
+        writeInt(Long.bitCount(removedApplications));
+        endLine();
+        for (long removed=removedApplications;removed!=0;removed&=removed-1) {
+            writeInt(Long.numberOfTrailingZeros(removed));
+            endLine();
+        }
+        sentApplications = remainingApplications;
+
+        writePlayer(player);
+        writePlayer(opponentPlayer);
+
+        //changed card locations, with zeros for the emptied ones
+        int changesCount = 0;
+        for (int location=0;location<LOCATIONS_COUNT;++location) {
+            fillLocation(location, player, opponentPlayer, locationCards);
+            if (!Arrays.equals(locationCards, sentLocations[location])) {
+                changedLocations[changesCount++] = location;
+                System.arraycopy(locationCards, 0, sentLocations[location], 0, CARD_TYPES_COUNT);
+            }
+        }
+        writeInt(changesCount);
+        endLine();
+        for (int i=0;i<changesCount;++i) {
+            writeCards(LOCATION_NAMES[changedLocations[i]], sentLocations[changedLocations[i]]);
+        }
+
+        writePossibleActions(rules, player, gamePhase);
+        return length;
+    }
+
+    //the next encodeDelta sends the whole input
+    public void reset() {
+        sent = false;
+    }
+
+    /**
+     * Checksum of the state sent to the player: starting from 0, h = 31 * h + v on 32 bits for every number of a whole
+     * input in order (applications count, then id and resources of each application, the two player lines) followed
+     * by the counts of the card locations, all of them including the empty ones, in the order HAND, DRAW, DISCARD,
+     * PLAYED_CARDS, AUTOMATED, OPPONENT_CARDS, OPPONENT_AUTOMATED.
+     */
+    public int checksum(GameState state, PlayerState player) {
+        PlayerState opponentPlayer = state.getOpponent(player);
+        List<Application> applications = state.getApplications();
+        int checksum = applications.size();
+        for (int i=0;i<applications.size();++i) {
+            Application application = applications.get(i);
+            checksum = 31 * checksum + application.getId();
+            for (int zoneId=0;zoneId<Config.ZONES_COUNT;++zoneId) {
+                checksum = 31 * checksum + application.getResourcesNeeded(zoneId);
+            }
+        }
+        checksum = checksumPlayer(checksum, player);
+        checksum = checksumPlayer(checksum, opponentPlayer);
+        for (int location=0;location<LOCATIONS_COUNT;++location) {
+            fillLocation(location, player, opponentPlayer, locationCards);
+            for (int type=0;type<CARD_TYPES_COUNT;++type) {
+                checksum = 31 * checksum + locationCards[type];
+            }
+        }
+        return checksum;
+    }
+
+    private static int checksumPlayer(int checksum, PlayerState player) {
+        checksum = 31 * checksum + player.getZoneId();
+        checksum = 31 * checksum + player.getScore();
+        checksum = 31 * checksum + player.getPermanentDailyRoutineCardsCount();
+        return 31 * checksum + player.getPermanentArchitectureStudyCardsCount();
+    }
+
+    //cards count per type of a location, as sent to the player
+    private static void fillLocation(int location, PlayerState player, PlayerState opponentPlayer, int[] cards) {
+        if (location < PILES.length) {
+            System.arraycopy(player.getCards(PILES[location]), 0, cards, 0, CARD_TYPES_COUNT);
+        } else if (location == OPPONENT_CARDS) {
+            int[] hand = opponentPlayer.getCards(Pile.HAND);
+            int[] discard = opponentPlayer.getCards(Pile.DISCARD);
+            int[] draw = opponentPlayer.getCards(Pile.DRAW);
+            for (int type=0;type<CARD_TYPES_COUNT;++type) {
+                cards[type] = hand[type] + discard[type] + draw[type];
+            }
+        } else {
+            System.arraycopy(opponentPlayer.getCards(Pile.AUTOMATED), 0, cards, 0, CARD_TYPES_COUNT);
+        }
+    }
+
+    private static boolean isEmpty(int[] cards) {
+        for (int count : cards) {
+            if (count != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //possible moves: RANDOM is listed just before WAIT, or last if WAIT is not possible
+    private void writePossibleActions(Rules rules, PlayerState player, GamePhase gamePhase) {
+        int count = rules.getPossibleActions(player, gamePhase, possibleActions);
+        writeInt(count + 1);
+        endLine();
+        boolean randomWritten = false;
+        for (int i=0;i<count;++i) {
+            if (ActionCode.getKind(possibleActions[i]) == ActionCode.WAIT) {
+                write(RANDOM);
+                endLine();
+                randomWritten = true;
+            }
+            writeAction(possibleActions[i]);
+            endLine();
+        }
+        if (!randomWritten) {
+            write(RANDOM);
+            endLine();
+        }
+    }
+
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, length);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, length);
+    }
+
+    //the encoded lines, for the APIs which only take lines
+    public List<String> getLines() {
+        List<String> lines = new ArrayList<>();
+        int lineStart = 0;
+        for (int i=0;i<length;++i) {
+            if (buffer[i] == '\n') {
+                lines.add(new String(buffer, lineStart, i - lineStart, StandardCharsets.US_ASCII));
+                lineStart = i + 1;
+            }
+        }
+        return lines;
+    }
+
+    private void writePlayer(PlayerState player) {
+        writeInt(player.getZoneId());
+        writeByte(' ');
+        writeInt(player.getScore());
+        writeByte(' ');
+        writeInt(player.getPermanentDailyRoutineCardsCount());
+        writeByte(' ');
+        writeInt(player.getPermanentArchitectureStudyCardsCount());
+        endLine();
+    }
+
+    private void writeCards(byte[] name, int[] cards) {
+        write(name);
+        for (int type=0;type<CARD_TYPES_COUNT;++type) {
+            writeByte(' ');
+            writeInt(cards[type]);
+        }
+        endLine();
+    }
+
+    //same text as ActionCode.toString
+    private void writeAction(int code) {
+        int first = ActionCode.getFirstArgument(code);
+        int second = ActionCode.getSecondArgument(code);
+        switch (ActionCode.getKind(code)) {
+            case ActionCode.MOVE:
+                write(MOVE);
+                writeInt(first);
+                if (first != second) {
+                    writeByte(' ');
+                    writeInt(second);
+                }
+                break;
+            case ActionCode.GIVE:
+                write(GIVE);
+                writeInt(first);
+                break;
+            case ActionCode.THROW:
+                write(THROW);
+                writeInt(first);
+                break;
+            case ActionCode.PLAY:
+                write(CARD_TYPES[first]);
+                if (second != ActionCode.NONE) {
+                    writeByte(' ');
+                    writeInt(second);
+                    int third = ActionCode.getThirdArgument(code);
+                    if (third != ActionCode.NONE) {
+                        writeByte(' ');
+                        writeInt(third);
+                    }
+                }
+                break;
+            case ActionCode.RELEASE:
+                write(RELEASE);
+                writeInt(first);
+                break;
+            case ActionCode.WAIT:
+                write(WAIT);
+                break;
+            default:
+                write(bytes(ActionCode.toString(code)));
+        }
+    }
+
+    private void endLine() {
+        writeByte('\n');
+    }
+
+    private void write(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void writeByte(char c) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) c;
+    }
+
+    //decimal digits, most significant first, as Integer.toString
+    private void writeInt(int value) {
+        ensureCapacity(11);
+        if (value < 0) {
+            buffer[length++] = '-';
+            if (value == Integer.MIN_VALUE) {
+                write(bytes("2147483648"));
+                return;
+            }
+            value = -value;
+        }
+        int digitsCount = 1;
+        for (int rest=value/10;rest>0;rest/=10) {
+            digitsCount++;
+        }
+        for (int i=length+digitsCount-1;i>=length;--i) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digitsCount;
+    }
+
+    private void ensureCapacity(int count) {
+        if (length + count > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(2 * buffer.length, length + count));
+        }
+    }
+}
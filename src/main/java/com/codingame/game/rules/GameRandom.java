@@ -0,0 +1,47 @@
+package com.codingame.game.rules;
+
+import java.util.Random;
+
+/**
+ * The generator of {@link Random} (a seed gives the same numbers), but its state can be read and set back,
+ * so a copied or undone game also gets its random draws back.
+ */
+public class GameRandom extends Random {
+    private static final long serialVersionUID = 1L;
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    //no initializer: the Random constructor sets it through setSeed before the fields are initialized
+    private long state;
+
+    public GameRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        super.setSeed(seed);
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    public GameRandom copy() {
+        GameRandom copy = new GameRandom(0);
+        copy.state = state;
+        return copy;
+    }
+}
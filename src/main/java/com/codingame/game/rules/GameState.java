@@ -0,0 +1,290 @@
+package com.codingame.game.rules;
+
+import com.codingame.game.Application;
+import com.codingame.game.Config;
+import com.codingame.game.GamePhase;
+import com.codingame.game.card.CardType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Everything needed to play a GreenCircle match, without any reference to the game engine or the view.
+ * The state is only modified through {@link Rules}.
+ */
+public class GameState {
+    //cards left on the board per type: action cards on their desk, then the bonus and technical debt cards pools
+    private final int[] boardCards = new int[PlayerState.CARD_TYPES_COUNT];
+    private GameRandom random;
+    //applications in the order they were dealt, and the ones still in play (one bit per application id)
+    private Application[] dealtApplications;
+    private List<Application> applications;
+    private long applicationsInPlay;
+    private PlayerState[] players;
+    private boolean lastTurn;
+    private GamePhase gamePhase;
+    private int activePlayerId;
+    private boolean gameOver;
+    //Zobrist hash of the features above, the players keeping their own one
+    private long hash = computeOwnHash();
+
+    //independent copy of the whole state, random generator included
+    public GameState copy() {
+        GameState copy = new GameState();
+        System.arraycopy(boardCards, 0, copy.boardCards, 0, boardCards.length);
+        copy.random = random.copy();
+        copy.dealtApplications = dealtApplications;
+        copy.applications = new ArrayList<>(applications);
+        copy.applicationsInPlay = applicationsInPlay;
+        copy.players = new PlayerState[players.length];
+        for (int i=0;i<players.length;++i) {
+            copy.players[i] = players[i].copy();
+        }
+        copy.lastTurn = lastTurn;
+        copy.gamePhase = gamePhase;
+        copy.activePlayerId = activePlayerId;
+        copy.gameOver = gameOver;
+        copy.hash = hash;
+        return copy;
+    }
+
+    //number of ints written by save
+    int getSnapshotSize() {
+        return boardCards.length + 10 + players.length * PlayerState.SNAPSHOT_SIZE;
+    }
+
+    //writes the whole state in the buffer, returns the offset after it
+    int save(int[] buffer, int offset) {
+        System.arraycopy(boardCards, 0, buffer, offset, boardCards.length);
+        offset += boardCards.length;
+        long randomState = random.getState();
+        buffer[offset++] = (int) randomState;
+        buffer[offset++] = (int) (randomState >>> 32);
+        buffer[offset++] = (int) applicationsInPlay;
+        buffer[offset++] = (int) (applicationsInPlay >>> 32);
+        buffer[offset++] = lastTurn ? 1 : 0;
+        buffer[offset++] = gamePhase.ordinal();
+        buffer[offset++] = activePlayerId;
+        buffer[offset++] = gameOver ? 1 : 0;
+        buffer[offset++] = (int) hash;
+        buffer[offset++] = (int) (hash >>> 32);
+        for (PlayerState player : players) {
+            offset = player.save(buffer, offset);
+        }
+        return offset;
+    }
+
+    //reads back what save wrote, returns the offset after it
+    int restore(int[] buffer, int offset) {
+        System.arraycopy(buffer, offset, boardCards, 0, boardCards.length);
+        offset += boardCards.length;
+        random.setState((buffer[offset++] & 0xFFFFFFFFL) | ((long) buffer[offset++] << 32));
+        restoreApplications((buffer[offset++] & 0xFFFFFFFFL) | ((long) buffer[offset++] << 32));
+        lastTurn = buffer[offset++] != 0;
+        gamePhase = GamePhase.values()[buffer[offset++]];
+        activePlayerId = buffer[offset++];
+        gameOver = buffer[offset++] != 0;
+        hash = (buffer[offset++] & 0xFFFFFFFFL) | ((long) buffer[offset++] << 32);
+        for (PlayerState player : players) {
+            offset = player.restore(buffer, offset);
+        }
+        return offset;
+    }
+
+    public int getBoardCardsCount(CardType cardType) {
+        return boardCards[cardType.ordinal()];
+    }
+
+    public int getZoneCardsCount(int zoneId) {
+        return boardCards[zoneId];
+    }
+
+    public int getBonusCardsCount() {
+        return boardCards[CardType.BONUS.ordinal()];
+    }
+
+    public int getTechnicalDebtCardsCount() {
+        return boardCards[CardType.TECHNICAL_DEBT.ordinal()];
+    }
+
+    void addBoardCard(CardType cardType) {
+        int count = boardCards[cardType.ordinal()]++;
+        hash += Zobrist.change(Zobrist.BOARD_CARDS + cardType.ordinal(), count, count + 1);
+    }
+
+    void removeBoardCard(CardType cardType) {
+        int count = boardCards[cardType.ordinal()]--;
+        hash += Zobrist.change(Zobrist.BOARD_CARDS + cardType.ordinal(), count, count - 1);
+    }
+
+    //type of the card a player gets from a desk: a bonus card once the desk is empty, null if there is none left either
+    public CardType getNextCardType(int zoneId) {
+        if (zoneId >= Config.ZONES_COUNT) {
+            throw new ArrayIndexOutOfBoundsException(String.format("Index %d out of bounds for length %d", zoneId, Config.ZONES_COUNT));
+        }
+        if (boardCards[zoneId] > 0) {
+            return CardType.values()[zoneId];
+        }
+        if (getBonusCardsCount() > 0) {
+            return CardType.BONUS;
+        }
+        return null;
+    }
+
+    public GameRandom getRandom() {
+        return random;
+    }
+
+    void setRandom(GameRandom random) {
+        this.random = random;
+    }
+
+    public List<Application> getApplications() {
+        return applications;
+    }
+
+    void setApplications(List<Application> applications) {
+        this.applications = applications;
+        dealtApplications = applications.toArray(new Application[0]);
+        applicationsInPlay = 0;
+        for (Application application : dealtApplications) {
+            applicationsInPlay |= 1L << application.getId();
+        }
+        hash = computeOwnHash();
+    }
+
+    //the application still in play with this id
+    public Application getApplication(int applicationId) {
+        for (int i=0;i<applications.size();++i) {
+            if (applications.get(i).getId() == applicationId) {
+                return applications.get(i);
+            }
+        }
+        throw new NoSuchElementException("No application " + applicationId);
+    }
+
+    void removeApplication(Application application) {
+        applications.remove(application);
+        applicationsInPlay &= ~(1L << application.getId());
+        hash -= Zobrist.key(Zobrist.APPLICATION_IN_PLAY + application.getId(), 1);
+    }
+
+    //released applications are only removed from the list, so putting them back in the dealing order restores the list
+    private void restoreApplications(long inPlay) {
+        if (inPlay == applicationsInPlay) {
+            return;
+        }
+        applications.clear();
+        for (Application application : dealtApplications) {
+            if ((inPlay & (1L << application.getId())) != 0) {
+                applications.add(application);
+            }
+        }
+        applicationsInPlay = inPlay;
+    }
+
+    public PlayerState[] getPlayers() {
+        return players;
+    }
+
+    void setPlayers(PlayerState[] players) {
+        this.players = players;
+    }
+
+    public PlayerState getPlayer(int index) {
+        return players[index];
+    }
+
+    public PlayerState getOpponent(PlayerState player) {
+        return players[(player.getIndex() + 1) % players.length];
+    }
+
+    public PlayerState getActivePlayer() {
+        return players[activePlayerId];
+    }
+
+    public int getActivePlayerId() {
+        return activePlayerId;
+    }
+
+    void setActivePlayerId(int activePlayerId) {
+        hash += Zobrist.change(Zobrist.ACTIVE_PLAYER, this.activePlayerId, activePlayerId);
+        this.activePlayerId = activePlayerId;
+    }
+
+    public GamePhase getGamePhase() {
+        return gamePhase;
+    }
+
+    void setGamePhase(GamePhase gamePhase) {
+        hash += Zobrist.change(Zobrist.GAME_PHASE, getGamePhaseId(this.gamePhase), getGamePhaseId(gamePhase));
+        this.gamePhase = gamePhase;
+    }
+
+    public boolean isLastTurn() {
+        return lastTurn;
+    }
+
+    void setLastTurn(boolean lastTurn) {
+        hash += Zobrist.change(Zobrist.LAST_TURN, this.lastTurn ? 1 : 0, lastTurn ? 1 : 0);
+        this.lastTurn = lastTurn;
+    }
+
+    //true once the last turn has been fully played
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    void setGameOver(boolean gameOver) {
+        hash += Zobrist.change(Zobrist.GAME_OVER, this.gameOver ? 1 : 0, gameOver ? 1 : 0);
+        this.gameOver = gameOver;
+    }
+
+    //Zobrist hash of the position (board, applications, phase, players), kept up to date on each change
+    public long getHash() {
+        long hash = this.hash;
+        for (PlayerState player : players) {
+            hash += player.getHash();
+        }
+        return hash;
+    }
+
+    //Zobrist hash of the position computed from scratch
+    public long computeHash() {
+        long hash = computeOwnHash();
+        for (PlayerState player : players) {
+            hash += player.computeHash();
+        }
+        return hash;
+    }
+
+    //throws if the incremental hash drifted from the position
+    void checkHash() {
+        long hash = getHash();
+        long expectedHash = computeHash();
+        if (hash != expectedHash) {
+            throw new IllegalStateException(String.format("State hash %016x instead of %016x", hash, expectedHash));
+        }
+    }
+
+    private long computeOwnHash() {
+        long hash = Zobrist.key(Zobrist.GAME_PHASE, getGamePhaseId(gamePhase))
+                + Zobrist.key(Zobrist.ACTIVE_PLAYER, activePlayerId)
+                + Zobrist.key(Zobrist.LAST_TURN, lastTurn ? 1 : 0)
+                + Zobrist.key(Zobrist.GAME_OVER, gameOver ? 1 : 0);
+        for (int type=0;type<boardCards.length;++type) {
+            hash += Zobrist.key(Zobrist.BOARD_CARDS + type, boardCards[type]);
+        }
+        for (int id=0;id<64;++id) {
+            if ((applicationsInPlay & (1L << id)) != 0) {
+                hash += Zobrist.key(Zobrist.APPLICATION_IN_PLAY + id, 1);
+            }
+        }
+        return hash;
+    }
+
+    private static int getGamePhaseId(GamePhase gamePhase) {
+        return gamePhase == null ? -1 : gamePhase.ordinal();
+    }
+}
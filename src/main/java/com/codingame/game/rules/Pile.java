@@ -0,0 +1,9 @@
+package com.codingame.game.rules;
+
+//where a card can be: one of the player piles, or back on the board
+//(a board card lies on its desk if it is an action card, otherwise in the bonus or technical debt cards pool)
+public enum Pile {
+    HAND, DRAW, DISCARD, PLAYED_CARDS, AUTOMATED, PERMANENT_SKILLS, BOARD;
+
+    public static final int PLAYER_PILES_COUNT = 6;
+}
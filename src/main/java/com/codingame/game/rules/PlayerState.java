@@ -0,0 +1,464 @@
+package com.codingame.game.rules;
+
+import com.codingame.game.Config;
+import com.codingame.game.card.CardType;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A player as seen by the rules: all cards of a same type are interchangeable,
+ * so each pile is only a count of cards per {@link CardType} (indexed by ordinal).
+ */
+public class PlayerState {
+    public static final int CARD_TYPES_COUNT = CardType.values().length;
+    private static final CardType[] CARD_TYPES = CardType.values();
+
+    private final int index;
+    private int score;
+    private int zoneId;
+    private int playsLeft;
+    private final int[][] piles = new int[Pile.PLAYER_PILES_COUNT][CARD_TYPES_COUNT];
+    private final int[] pileSizes = new int[Pile.PLAYER_PILES_COUNT];
+    private int numberOfCardsToThrow;
+    private boolean mustGiveCard;
+    private int zoneToTakeCardId = -1;
+    //what the hand and the automated cards can pay for a release, kept up to date on each of their changes
+    private final int[] releaseResources = new int[Config.ZONES_COUNT];
+    private int releaseBonuses;
+    private int releaseBadActions;
+    //Zobrist hash of this player, its features following the game state ones
+    private final int hashFeatures;
+    private long hash;
+
+    public PlayerState(int index) {
+        this.index = index;
+        hashFeatures = Zobrist.PLAYERS + index * Zobrist.PLAYER_FEATURES;
+        hash = computeHash();
+    }
+
+    public PlayerState copy() {
+        PlayerState copy = new PlayerState(index);
+        copy.score = score;
+        copy.zoneId = zoneId;
+        copy.playsLeft = playsLeft;
+        for (int pile=0;pile<Pile.PLAYER_PILES_COUNT;++pile) {
+            System.arraycopy(piles[pile], 0, copy.piles[pile], 0, CARD_TYPES_COUNT);
+        }
+        System.arraycopy(pileSizes, 0, copy.pileSizes, 0, Pile.PLAYER_PILES_COUNT);
+        copy.numberOfCardsToThrow = numberOfCardsToThrow;
+        copy.mustGiveCard = mustGiveCard;
+        copy.zoneToTakeCardId = zoneToTakeCardId;
+        System.arraycopy(releaseResources, 0, copy.releaseResources, 0, Config.ZONES_COUNT);
+        copy.releaseBonuses = releaseBonuses;
+        copy.releaseBadActions = releaseBadActions;
+        copy.hash = hash;
+        return copy;
+    }
+
+    //number of ints written by save
+    static final int SNAPSHOT_SIZE = 10 + Pile.PLAYER_PILES_COUNT * (CARD_TYPES_COUNT + 1) + Config.ZONES_COUNT;
+
+    //writes the whole player in the buffer, returns the offset after it
+    int save(int[] buffer, int offset) {
+        buffer[offset++] = score;
+        buffer[offset++] = zoneId;
+        buffer[offset++] = playsLeft;
+        buffer[offset++] = numberOfCardsToThrow;
+        buffer[offset++] = mustGiveCard ? 1 : 0;
+        buffer[offset++] = zoneToTakeCardId;
+        buffer[offset++] = releaseBonuses;
+        buffer[offset++] = releaseBadActions;
+        buffer[offset++] = (int) hash;
+        buffer[offset++] = (int) (hash >>> 32);
+        System.arraycopy(releaseResources, 0, buffer, offset, Config.ZONES_COUNT);
+        offset += Config.ZONES_COUNT;
+        for (int pile=0;pile<Pile.PLAYER_PILES_COUNT;++pile) {
+            System.arraycopy(piles[pile], 0, buffer, offset, CARD_TYPES_COUNT);
+            offset += CARD_TYPES_COUNT;
+        }
+        System.arraycopy(pileSizes, 0, buffer, offset, Pile.PLAYER_PILES_COUNT);
+        return offset + Pile.PLAYER_PILES_COUNT;
+    }
+
+    //reads back what save wrote, returns the offset after it
+    int restore(int[] buffer, int offset) {
+        score = buffer[offset++];
+        zoneId = buffer[offset++];
+        playsLeft = buffer[offset++];
+        numberOfCardsToThrow = buffer[offset++];
+        mustGiveCard = buffer[offset++] != 0;
+        zoneToTakeCardId = buffer[offset++];
+        releaseBonuses = buffer[offset++];
+        releaseBadActions = buffer[offset++];
+        hash = (buffer[offset++] & 0xFFFFFFFFL) | ((long) buffer[offset++] << 32);
+        System.arraycopy(buffer, offset, releaseResources, 0, Config.ZONES_COUNT);
+        offset += Config.ZONES_COUNT;
+        for (int pile=0;pile<Pile.PLAYER_PILES_COUNT;++pile) {
+            System.arraycopy(buffer, offset, piles[pile], 0, CARD_TYPES_COUNT);
+            offset += CARD_TYPES_COUNT;
+        }
+        System.arraycopy(buffer, offset, pileSizes, 0, Pile.PLAYER_PILES_COUNT);
+        return offset + Pile.PLAYER_PILES_COUNT;
+    }
+
+    public int getIndex() { return index; }
+
+    public int getScore() { return score; }
+
+    public void setScore(int score) {
+        hash += Zobrist.change(hashFeatures + Zobrist.SCORE, this.score, score);
+        this.score = score;
+    }
+
+    public int getPlaysLeft() { return playsLeft; }
+
+    public void setPlaysLeft(int playsLeft) {
+        hash += Zobrist.change(hashFeatures + Zobrist.PLAYS_LEFT, this.playsLeft, playsLeft);
+        this.playsLeft = playsLeft;
+    }
+
+    public void addMorePlays(int plays) { setPlaysLeft(playsLeft + plays); }
+
+    public void removeOnePlay() { setPlaysLeft(playsLeft - 1); }
+
+    public boolean mustGiveCard() {
+        return mustGiveCard;
+    }
+
+    public void setMustGiveCard(boolean mustGiveCard) {
+        hash += Zobrist.change(hashFeatures + Zobrist.MUST_GIVE_CARD, this.mustGiveCard ? 1 : 0, mustGiveCard ? 1 : 0);
+        this.mustGiveCard = mustGiveCard;
+    }
+
+    public void setMustTakeCard(int zoneToTakeCardId) {
+        hash += Zobrist.change(hashFeatures + Zobrist.ZONE_TO_TAKE_CARD, this.zoneToTakeCardId, zoneToTakeCardId);
+        this.zoneToTakeCardId = zoneToTakeCardId;
+    }
+
+    public int getZoneToTakeCardId() { return zoneToTakeCardId; }
+
+    public int getNumberOfCardsToThrow() { return numberOfCardsToThrow; }
+
+    public void setNumberOfCardsToThrow(int numberOfCardsToThrow) {
+        hash += Zobrist.change(hashFeatures + Zobrist.CARDS_TO_THROW, this.numberOfCardsToThrow, numberOfCardsToThrow);
+        this.numberOfCardsToThrow = numberOfCardsToThrow;
+    }
+
+    public int getZoneId() {
+        return zoneId;
+    }
+
+    public void setZoneId(int zoneId) {
+        hash += Zobrist.change(hashFeatures + Zobrist.ZONE, this.zoneId, zoneId);
+        this.zoneId = zoneId;
+    }
+
+    //Zobrist hash of the player, kept up to date on each change
+    public long getHash() {
+        return hash;
+    }
+
+    //Zobrist hash of the player computed from scratch
+    public long computeHash() {
+        long hash = Zobrist.key(hashFeatures + Zobrist.SCORE, score)
+                + Zobrist.key(hashFeatures + Zobrist.ZONE, zoneId)
+                + Zobrist.key(hashFeatures + Zobrist.PLAYS_LEFT, playsLeft)
+                + Zobrist.key(hashFeatures + Zobrist.CARDS_TO_THROW, numberOfCardsToThrow)
+                + Zobrist.key(hashFeatures + Zobrist.MUST_GIVE_CARD, mustGiveCard ? 1 : 0)
+                + Zobrist.key(hashFeatures + Zobrist.ZONE_TO_TAKE_CARD, zoneToTakeCardId);
+        for (int pile=0;pile<Pile.PLAYER_PILES_COUNT;++pile) {
+            for (int type=0;type<CARD_TYPES_COUNT;++type) {
+                hash += Zobrist.key(getPileCardsFeature(pile, type), piles[pile][type]);
+            }
+        }
+        return hash;
+    }
+
+    private int getPileCardsFeature(int pile, int type) {
+        return hashFeatures + Zobrist.PILE_CARDS + pile * CARD_TYPES_COUNT + type;
+    }
+
+    //cards count per type in a pile: do not modify the returned array
+    public int[] getCards(Pile pile) {
+        return piles[pile.ordinal()];
+    }
+
+    public int getCardsCount(Pile pile, CardType cardType) {
+        return piles[pile.ordinal()][cardType.ordinal()];
+    }
+
+    public int getCardsCount(Pile pile) {
+        return pileSizes[pile.ordinal()];
+    }
+
+    public int getDrawPileSize() { return getCardsCount(Pile.DRAW); }
+
+    public int getDiscardPileSize() { return getCardsCount(Pile.DISCARD); }
+
+    void addCard(Pile pile, CardType cardType) {
+        int count = piles[pile.ordinal()][cardType.ordinal()]++;
+        hash += Zobrist.change(getPileCardsFeature(pile.ordinal(), cardType.ordinal()), count, count + 1);
+        pileSizes[pile.ordinal()]++;
+        if (pile == Pile.HAND || pile == Pile.AUTOMATED) {
+            addReleaseResources(cardType.ordinal(), 1);
+        }
+    }
+
+    void removeCard(Pile pile, CardType cardType) {
+        int count = piles[pile.ordinal()][cardType.ordinal()]--;
+        hash += Zobrist.change(getPileCardsFeature(pile.ordinal(), cardType.ordinal()), count, count - 1);
+        pileSizes[pile.ordinal()]--;
+        if (pile == Pile.HAND || pile == Pile.AUTOMATED) {
+            addReleaseResources(cardType.ordinal(), -1);
+        }
+    }
+
+    private void addReleaseResources(int type, int count) {
+        if (type < Config.ZONES_COUNT) {
+            //action cards: 2 good actions, or 2 bad actions
+            releaseResources[type] += 2 * count;
+            releaseBadActions += 2 * count;
+        } else if (type == CardType.BONUS.ordinal()) {
+            //bonus cards: 1 bonus action, or 1 bad action
+            releaseBonuses += count;
+            releaseBadActions += count;
+        }
+    }
+
+    //rebuilds the release resources from the piles, after they were emptied
+    private void countReleaseResources() {
+        for (int type=0;type<Config.ZONES_COUNT;++type) {
+            releaseResources[type] = 0;
+        }
+        releaseBonuses = 0;
+        releaseBadActions = 0;
+        for (int type=0;type<CARD_TYPES_COUNT;++type) {
+            addReleaseResources(type, piles[Pile.HAND.ordinal()][type] + piles[Pile.AUTOMATED.ordinal()][type]);
+        }
+    }
+
+    //good actions per zone the hand and the automated cards can pay for a release: do not modify the returned array
+    public int[] getReleaseResources() {
+        return releaseResources;
+    }
+
+    //bonus actions the hand and the automated cards can pay for a release
+    public int getReleaseBonuses() {
+        return releaseBonuses;
+    }
+
+    //bad actions (each one costing a technical debt card) the hand and the automated cards can pay for a release
+    public int getReleaseBadActions() {
+        return releaseBadActions;
+    }
+
+    private void moveCard(CardType cardType, Pile from, Pile to, RulesListener listener) {
+        removeCard(from, cardType);
+        addCard(to, cardType);
+        listener.onCardMoved(cardType, this, from, this, to);
+    }
+
+    //empties every pile, the initial cards are then dealt by the rules
+    void init() {
+        zoneId = -1; //start outside of the board
+        for (int pile=0;pile<Pile.PLAYER_PILES_COUNT;++pile) {
+            for (int type=0;type<CARD_TYPES_COUNT;++type) {
+                piles[pile][type] = 0;
+            }
+            pileSizes[pile] = 0;
+        }
+        countReleaseResources();
+        mustGiveCard = false;
+        numberOfCardsToThrow = 0;
+        hash = computeHash();
+    }
+
+    public String getGlobalCardsInfo() {
+        int[] cardsCount = new int[CARD_TYPES_COUNT];
+        for (int type=0;type<CARD_TYPES_COUNT;++type) {
+            cardsCount[type] = piles[Pile.HAND.ordinal()][type] + piles[Pile.DISCARD.ordinal()][type] + piles[Pile.DRAW.ordinal()][type];
+        }
+        return "CARDS " + StringUtils.join(ArrayUtils.toObject(cardsCount), " ");
+    }
+
+    private String getCardsCount(int[] cards) {
+        return StringUtils.join(ArrayUtils.toObject(cards), " ");
+    }
+
+    public List<String> getCardsInfo() {
+        List<String> info = new ArrayList<>();
+
+        //hand
+        if (getCardsCount(Pile.HAND) > 0) {
+            info.add("HAND " + getCardsCount(getCards(Pile.HAND)));
+        }
+
+        //draw
+        if (getCardsCount(Pile.DRAW) > 0) {
+            info.add("DRAW " + getCardsCount(getCards(Pile.DRAW)));
+        }
+
+        //discard
+        if (getCardsCount(Pile.DISCARD) > 0) {
+            info.add("DISCARD " + getCardsCount(getCards(Pile.DISCARD)));
+        }
+
+        //played Cards
+        if (getCardsCount(Pile.PLAYED_CARDS) > 0) {
+            info.add("PLAYED_CARDS " + getCardsCount(getCards(Pile.PLAYED_CARDS)));
+        }
+
+        //automated
+        if (getCardsCount(Pile.AUTOMATED) > 0) {
+            info.add("AUTOMATED " + getCardsCount(getCards(Pile.AUTOMATED)));
+        }
+
+        return info;
+    }
+
+    public String getAutomatedCardsInfo() {
+        return "AUTOMATED " + getCardsCount(getCards(Pile.AUTOMATED));
+    }
+
+    public void discardAndRedrawCards(Random random, RulesListener listener) {
+        moveAllCards(Pile.HAND, Pile.DISCARD, listener);
+        moveAllPlayedCardsToDiscardPile(listener);
+        int moreCardsToDraw = getPermanentArchitectureStudyCardsCount();
+        drawCards(Config.CARDS_TO_DRAW + moreCardsToDraw, random, listener);
+    }
+
+    private void moveAllCards(Pile from, Pile to, RulesListener listener) {
+        int[] cards = piles[from.ordinal()];
+        for (int type=0;type<CARD_TYPES_COUNT;++type) {
+            while (cards[type] > 0) {
+                moveCard(CARD_TYPES[type], from, to, listener);
+            }
+        }
+    }
+
+    public int getPermanentDailyRoutineCardsCount() {
+        return getCardsCount(Pile.PERMANENT_SKILLS, CardType.DAILY_ROUTINE);
+    }
+
+    public int getPermanentArchitectureStudyCardsCount() {
+        return getCardsCount(Pile.PERMANENT_SKILLS, CardType.ARCHITECTURE_STUDY);
+    }
+
+    //returns the number of cards really drawn (the draw and discard piles may be empty)
+    public int drawCards(int cardsCount, Random random, RulesListener listener) {
+        for (int i=0;i<cardsCount;++i) {
+            if (getCardsCount(Pile.DRAW) == 0 && getCardsCount(Pile.DISCARD) == 0) {
+                return i;
+            }
+            if (getCardsCount(Pile.DRAW) == 0) {
+                //reshuffle: the draw pile order is only decided when a card is drawn
+                moveAllCards(Pile.DISCARD, Pile.DRAW, listener);
+            }
+            CardType cardTaken = sampleCard(Pile.DRAW, random);
+            moveCard(cardTaken, Pile.DRAW, Pile.HAND, listener);
+            listener.onCardTaken(this, cardTaken);
+        }
+        return cardsCount;
+    }
+
+    //picks a card uniformly in a pile, which is the same as taking the top card of a shuffled pile
+    private CardType sampleCard(Pile pile, Random random) {
+        int[] cards = piles[pile.ordinal()];
+        int cardId = random.nextInt(pileSizes[pile.ordinal()]);
+        for (int type=0;type<CARD_TYPES_COUNT;++type) {
+            cardId -= cards[type];
+            if (cardId < 0) {
+                return CARD_TYPES[type];
+            }
+        }
+        throw new IllegalStateException("Inconsistent " + pile + " pile size");
+    }
+
+    public int getNonTechnicalDebtCardsInHandCount() {
+        return getCardsCount(Pile.HAND) - getCardsCount(Pile.HAND, CardType.TECHNICAL_DEBT);
+    }
+
+    //returns the only type of the non technical debt cards in hand, or null if there are several types (or none)
+    public CardType getSingleNonTechnicalDebtCardTypeInHand() {
+        CardType single = null;
+        int[] hand = getCards(Pile.HAND);
+        for (int type=0;type<CardType.TECHNICAL_DEBT.ordinal();++type) {
+            if (hand[type] > 0) {
+                if (single != null) {
+                    return null;
+                }
+                single = CARD_TYPES[type];
+            }
+        }
+        return single;
+    }
+
+    public void playCardFromHand(CardType cardType, RulesListener listener) {
+        moveCard(cardType, Pile.HAND, Pile.PLAYED_CARDS, listener);
+    }
+
+    public void automateCardFromHand(CardType cardType, RulesListener listener) {
+        moveCard(cardType, Pile.HAND, Pile.AUTOMATED, listener);
+    }
+
+    public void moveAllPlayedCardsToDiscardPile(RulesListener listener) {
+        moveAllCards(Pile.PLAYED_CARDS, Pile.DISCARD, listener);
+    }
+
+    public void playPermanentSkillCardFromHand(CardType cardType, RulesListener listener) {
+        moveCard(cardType, Pile.HAND, Pile.PERMANENT_SKILLS, listener);
+    }
+
+    public void discardPermanentSkills(RulesListener listener) {
+        moveAllCards(Pile.PERMANENT_SKILLS, Pile.DISCARD, listener);
+    }
+
+    public boolean canPlayCard() {
+        if (canPlaySimpleCard()) {
+            return true;
+        }
+        int[] hand = getCards(Pile.HAND);
+        if (hand[CardType.CODING.ordinal()] > 0 || hand[CardType.DAILY_ROUTINE.ordinal()] > 0) {
+            return true;
+        }
+        return getNonTechnicalDebtCardsInHandCount() > 1
+                && (hand[CardType.TASK_PRIORITIZATION.ordinal()] > 0 || hand[CardType.CONTINUOUS_INTEGRATION.ordinal()] > 0);
+    }
+
+    public boolean canPlaySimpleCard() {
+        return getSimpleActionCardsInHandCount() > 0;
+    }
+
+    public static boolean isSimpleActionCard(CardType cardType) {
+        return cardType == CardType.TRAINING
+                || cardType == CardType.ARCHITECTURE_STUDY
+                || cardType == CardType.CODE_REVIEW
+                || cardType == CardType.REFACTORING;
+    }
+
+    public static boolean isActionCard(CardType cardType) {
+        return cardType != CardType.BONUS && cardType != CardType.TECHNICAL_DEBT;
+    }
+
+    public int getSimpleActionCardsInHandCount() {
+        int[] hand = getCards(Pile.HAND);
+        return hand[CardType.TRAINING.ordinal()]
+                + hand[CardType.ARCHITECTURE_STUDY.ordinal()]
+                + hand[CardType.CODE_REVIEW.ordinal()]
+                + hand[CardType.REFACTORING.ordinal()];
+    }
+
+    public int getActionCardsInHandCount() {
+        return getNonTechnicalDebtCardsInHandCount() - getCardsCount(Pile.HAND, CardType.BONUS);
+    }
+
+    public int getTechnicalDebtCardsCount() {
+        return getCardsCount(Pile.HAND, CardType.TECHNICAL_DEBT)
+                + getCardsCount(Pile.DISCARD, CardType.TECHNICAL_DEBT)
+                + getCardsCount(Pile.DRAW, CardType.TECHNICAL_DEBT);
+    }
+}
@@ -0,0 +1,795 @@
+package com.codingame.game.rules;
+
+import com.codingame.game.Application;
+import com.codingame.game.ApplicationFactory;
+import com.codingame.game.Config;
+import com.codingame.game.GamePhase;
+import com.codingame.game.MatchConfig;
+import com.codingame.game.action.*;
+import com.codingame.game.card.CardType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.lang.Math.abs;
+
+/**
+ * The GreenCircle rules: applies the players actions on a {@link GameState} and moves the game from phase to phase.
+ * It does not know anything about the game engine, the view or the game summary: everything is reported to a {@link RulesListener}.
+ */
+public class Rules {
+    private static final CardType[] CARD_TYPES = CardType.values();
+    //upper bound of the number of possible actions in a phase
+    public static final int MAX_POSSIBLE_ACTIONS = 128;
+
+    private final MatchConfig config;
+    private final GameState state;
+    private final RulesListener listener;
+    //created on the first applied action, once the players are known
+    private UndoLog undoLog;
+    //scratch buffers of the possible actions generation
+    private final int[] possibleActions = new int[MAX_POSSIBLE_ACTIONS];
+    private final long[] possibleActionsSeen = new long[ActionCode.ARGUMENTS_COUNT / 64];
+
+    public Rules(MatchConfig config, GameState state, RulesListener listener) {
+        this.config = config;
+        this.state = state;
+        this.listener = listener;
+    }
+
+    public Rules(MatchConfig config, GameState state) {
+        this(config, state, RulesListener.NONE);
+    }
+
+    public MatchConfig getConfig() {
+        return config;
+    }
+
+    public GameState getState() {
+        return state;
+    }
+
+    public void init(long seed, int playersCount) {
+        state.setLastTurn(false);
+        state.setGameOver(false);
+        state.setGamePhase(GamePhase.MOVE);
+        state.setActivePlayerId(0);
+        GameRandom random = new GameRandom(seed);
+        state.setRandom(random);
+        //create board & the action cards
+        for (int zoneId=0;zoneId<Config.ZONES_COUNT;++zoneId) {
+            for(int i=0;i<config.getCardsPerZone();++i) {
+                createNewCard(CardType.values()[zoneId]);
+            }
+        }
+
+        //create applications
+        ApplicationFactory applicationFactory = new ApplicationFactory();
+        List<Application> applications = new ArrayList<>();
+        for (int i=0;i<config.getSmallApplicationsCount();++i) {
+            applications.add(applicationFactory.createSmallApplication(random));
+        }
+        for (int i=0;i<config.getBigApplicationsCount();++i) {
+            applications.add(applicationFactory.createBigApplication(random));
+        }
+        state.setApplications(applications);
+
+        for (int i=0;i<36;++i) {
+            createNewCard(CardType.BONUS);
+        }
+        for (int i=0;i<100;++i) {
+            createNewCard(CardType.TECHNICAL_DEBT);
+        }
+
+        //initialize players (and their cards)
+        PlayerState[] players = new PlayerState[playersCount];
+        for (int i=0;i<playersCount;++i) {
+            players[i] = new PlayerState(i);
+        }
+        state.setPlayers(players);
+        for (PlayerState player : players) {
+            initPlayer(player, random);
+        }
+        if (Zobrist.CHECK) {
+            state.checkHash();
+        }
+    }
+
+    private void createNewCard(CardType cardType) {
+        state.addBoardCard(cardType);
+        listener.onCardMoved(cardType, null, null, null, Pile.BOARD);
+    }
+
+    private void initPlayer(PlayerState player, Random random) {
+        player.init();
+        //initial draw pile is 4 good and 4 bad cards
+        CardType[] drawPile = new CardType[8];
+        int drawPileSize = 0;
+        int bonusCardsToCreate = 4;
+        int technicalDebtCardsToCreate = 4;
+        while (bonusCardsToCreate + technicalDebtCardsToCreate > 0) {
+            CardType newCard;
+            if (bonusCardsToCreate>0 && technicalDebtCardsToCreate>0) {
+                if (random.nextBoolean()) {
+                    newCard = CardType.BONUS;
+                    bonusCardsToCreate--;
+                }
+                else {
+                    newCard = CardType.TECHNICAL_DEBT;
+                    technicalDebtCardsToCreate--;
+                }
+            }
+            else if (bonusCardsToCreate>0) {
+                if (bonusCardsToCreate==4) {
+                    //error: we do not want our first hand with only bonus cards
+                    newCard = drawPile[drawPileSize-1];
+                    drawPile[drawPileSize-1] = CardType.BONUS;
+                }
+                else {
+                    newCard = CardType.BONUS;
+                }
+                bonusCardsToCreate--;
+            }
+            else {
+                if (technicalDebtCardsToCreate==4) {
+                    //error: we do not want our first hand with only technical debt cards
+                    newCard = drawPile[drawPileSize-1];
+                    drawPile[drawPileSize-1] = CardType.TECHNICAL_DEBT;
+                }
+                else {
+                    newCard = CardType.TECHNICAL_DEBT;
+                }
+                technicalDebtCardsToCreate--;
+            }
+            drawPile[drawPileSize++] = newCard;
+        }
+        for (int i=0;i<drawPileSize;++i) {
+            moveCard(drawPile[i], null, Pile.BOARD, player, Pile.DRAW);
+        }
+
+        //the first hand is the top of this draw pile, the order of the remaining cards is decided when they are drawn
+        for (int i=0;i<Config.CARDS_TO_DRAW && i<drawPileSize;++i) {
+            moveCard(drawPile[drawPileSize-1-i], player, Pile.DRAW, player, Pile.HAND);
+        }
+    }
+
+    //moves one card, a null player is the board
+    private void moveCard(CardType cardType, PlayerState from, Pile fromPile, PlayerState to, Pile toPile) {
+        if (from == null) {
+            state.removeBoardCard(cardType);
+        } else {
+            from.removeCard(fromPile, cardType);
+        }
+        if (toPile != null) {
+            if (to == null) {
+                state.addBoardCard(cardType);
+            } else {
+                to.addCard(toPile, cardType);
+            }
+        }
+        listener.onCardMoved(cardType, from, fromPile, to, toPile);
+    }
+
+    //takes a card from the board (an action card desk falls back on the bonus cards), returns null if there is no card left
+    private CardType takeBoardCard(PlayerState player, CardType cardType, Pile toPile) {
+        CardType cardTaken;
+        if (PlayerState.isActionCard(cardType)) {
+            cardTaken = state.getNextCardType(cardType.ordinal());
+        } else {
+            cardTaken = state.getBoardCardsCount(cardType) > 0 ? cardType : null;
+        }
+        if (cardTaken != null) {
+            moveCard(cardTaken, null, Pile.BOARD, player, toPile);
+        }
+        return cardTaken;
+    }
+
+    //plays an action of the active player then moves to the next phase, the state can be set back with undo
+    public void apply(int action) {
+        if (undoLog == null) {
+            undoLog = new UndoLog(state);
+        }
+        undoLog.save();
+        performAction(state.getActivePlayer(), action);
+        nextPhase();
+    }
+
+    public void apply(Action action) {
+        apply(action.getCode());
+    }
+
+    //sets the state back to what it was before the last applied action
+    public void undo() {
+        if (undoLog == null) {
+            throw new IllegalStateException("No action to undo");
+        }
+        undoLog.restore();
+        if (Zobrist.CHECK) {
+            state.checkHash();
+        }
+    }
+
+    //number of applied actions which can be undone
+    public int getUndoDepth() {
+        return undoLog == null ? 0 : undoLog.getDepth();
+    }
+
+    public void performAction(PlayerState player, Action action) {
+        performAction(player, action.getCode());
+    }
+
+    //plays an ActionCode
+    public void performAction(PlayerState player, int action) {
+        switch (ActionCode.getKind(action)) {
+            case ActionCode.MOVE:
+                move(player, ActionCode.getFirstArgument(action), ActionCode.getSecondArgument(action));
+                break;
+            case ActionCode.GIVE:
+                giveCard(player, CARD_TYPES[ActionCode.getFirstArgument(action)]);
+                break;
+            case ActionCode.PLAY:
+                playCard(player, action);
+                break;
+            case ActionCode.THROW:
+                throwCard(player, CARD_TYPES[ActionCode.getFirstArgument(action)]);
+                break;
+            case ActionCode.RELEASE:
+                release(player, ActionCode.getFirstArgument(action));
+                break;
+            case ActionCode.WAIT:
+                listener.onWait(player);
+                player.setPlaysLeft(0);
+                break;
+        }
+    }
+
+    private void playCard(PlayerState player, int action) {
+        switch (CARD_TYPES[ActionCode.getFirstArgument(action)]) {
+            case TRAINING:
+                train(player);
+                break;
+            case CODING:
+                coding(player);
+                break;
+            case DAILY_ROUTINE:
+                dailyRoutine(player);
+                break;
+            case TASK_PRIORITIZATION:
+                taskPrioritization(player, CARD_TYPES[ActionCode.getSecondArgument(action)], CARD_TYPES[ActionCode.getThirdArgument(action)]);
+                break;
+            case ARCHITECTURE_STUDY:
+                architectureStudy(player);
+                break;
+            case CONTINUOUS_INTEGRATION:
+                continuousIntegration(player, CARD_TYPES[ActionCode.getSecondArgument(action)]);
+                break;
+            case CODE_REVIEW:
+                codeReview(player);
+                break;
+            case REFACTORING:
+                refactoring(player);
+                break;
+        }
+    }
+
+    private void train(PlayerState player) {
+        player.playCardFromHand(CardType.TRAINING, listener);
+        int cardsDrawn = player.drawCards(2, state.getRandom(), listener);
+        player.addMorePlays(1);
+        listener.onTraining(player, cardsDrawn);
+    }
+
+    private void coding(PlayerState player) {
+        player.playCardFromHand(CardType.CODING, listener);
+        int cardsDrawn = player.drawCards(1, state.getRandom(), listener);
+        player.addMorePlays(2);
+        listener.onCoding(player, cardsDrawn);
+    }
+
+    private void dailyRoutine(PlayerState player) {
+        player.playPermanentSkillCardFromHand(CardType.DAILY_ROUTINE, listener);
+        listener.onDailyRoutine(player);
+    }
+
+    private void taskPrioritization(PlayerState player, CardType thrownCard, CardType cardTypeToTake) {
+        player.playCardFromHand(CardType.TASK_PRIORITIZATION, listener);
+        if (player.getCardsCount(Pile.HAND, thrownCard) == 0 || thrownCard == CardType.TECHNICAL_DEBT) {
+            listener.onUselessTaskPrioritization(player, thrownCard);
+            return;
+        }
+        //the thrown card leaves the hand before the card to take is looked for
+        CardType cardTaken;
+        if (cardTypeToTake == CardType.BONUS) {
+            cardTaken = state.getBonusCardsCount() > 0 ? CardType.BONUS : null;
+        } else {
+            cardTaken = state.getNextCardType(cardTypeToTake.ordinal());
+        }
+        if (cardTaken==null) {
+            //the thrown card is lost
+            moveCard(thrownCard, player, Pile.HAND, null, null);
+            listener.onReallyUselessTaskPrioritization(player, cardTypeToTake);
+            return;
+        }
+        moveCard(cardTaken, null, Pile.BOARD, player, Pile.HAND);
+        listener.onCardTaken(player, cardTaken);
+        moveCard(thrownCard, player, Pile.HAND, null, Pile.BOARD);
+        if (cardTaken == CardType.BONUS && cardTypeToTake != CardType.BONUS) {
+            listener.onSemiUselessTaskPrioritization(player, cardTypeToTake);
+        } else {
+            listener.onUsefulTaskPrioritization(player, thrownCard, cardTaken);
+        }
+    }
+
+    private void architectureStudy(PlayerState player) {
+        player.playPermanentSkillCardFromHand(CardType.ARCHITECTURE_STUDY, listener);
+        listener.onArchitectureStudy(player);
+    }
+
+    private void continuousIntegration(PlayerState player, CardType cardToAutomate) {
+        player.playCardFromHand(CardType.CONTINUOUS_INTEGRATION, listener);
+        if (player.getCardsCount(Pile.HAND, cardToAutomate) == 0 || cardToAutomate == CardType.TECHNICAL_DEBT) {
+            listener.onUselessContinuousIntegration(player, cardToAutomate);
+        } else {
+            player.automateCardFromHand(cardToAutomate, listener);
+            listener.onUsefulContinuousIntegration(player, cardToAutomate);
+        }
+    }
+
+    private void codeReview(PlayerState player) {
+        player.playCardFromHand(CardType.CODE_REVIEW, listener);
+        if (takeBoardCard(player, CardType.BONUS, Pile.DISCARD) == null) {
+            listener.onUselessCodeReview(player);
+        }
+        else {
+            listener.onCardAddedToDiscardPile(player, CardType.BONUS);
+            if (takeBoardCard(player, CardType.BONUS, Pile.DISCARD) == null) {
+                listener.onSemiUsefulCodeReview(player);
+            }
+            else {
+                listener.onCardAddedToDiscardPile(player, CardType.BONUS);
+                listener.onUsefulCodeReview(player);
+            }
+        }
+    }
+
+    private void refactoring(PlayerState player) {
+        player.playCardFromHand(CardType.REFACTORING, listener);
+        if (player.getCardsCount(Pile.HAND, CardType.TECHNICAL_DEBT) == 0) {
+            listener.onUselessRefactoring(player);
+        }
+        else {
+            moveCard(CardType.TECHNICAL_DEBT, player, Pile.HAND, null, Pile.BOARD);
+            listener.onRefactoring(player);
+        }
+        listener.onTechnicalDebtChanged(player);
+    }
+
+    private void throwCard(PlayerState player, CardType thrownCard) {
+        moveCard(thrownCard, player, Pile.HAND, null, Pile.BOARD);
+        player.setNumberOfCardsToThrow(player.getNumberOfCardsToThrow()-1);
+        listener.onThrowCard(player, thrownCard, false);
+        if (player.getNumberOfCardsToThrow()==0) {
+            listener.onPlayerMoved(player, -1, player.getZoneId());
+            listener.onMove(player);
+            if (checkDistance(player)) {
+                return;
+            }
+            takeCard(player);
+        }
+    }
+
+    //returns true if the player must choose a card to give to their opponent
+    private boolean checkDistance(PlayerState player) {
+        PlayerState opponentPlayer = state.getOpponent(player);
+        if (config.giveCardIfTooCloseToOpponent()
+                && opponentPlayer.getZoneId()>=0
+                && ((abs(opponentPlayer.getZoneId() - player.getZoneId())<=1)
+                    || (abs(opponentPlayer.getZoneId() - player.getZoneId())==7))) {
+            //too close, must give one card
+            listener.onMustGiveCard(player);
+            if (player.getNonTechnicalDebtCardsInHandCount() == 0) {
+                //automatic technical debt
+                int technicalDebtToTake = 2;
+                int technicalDebtTaken = takeTechnicalDebt(player, technicalDebtToTake);
+                listener.onTechnicalDebtTaken(player, technicalDebtToTake, technicalDebtTaken);
+                listener.onTechnicalDebtChanged(player);
+            }
+            else if (player.getSingleNonTechnicalDebtCardTypeInHand() != null) {
+                //automatic give, but no technical debt
+                CardType givenCard = player.getSingleNonTechnicalDebtCardTypeInHand();
+                moveCard(givenCard, player, Pile.HAND, opponentPlayer, Pile.HAND);
+                listener.onGiveCard(player, givenCard);
+            }
+            else {
+                player.setMustGiveCard(true);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //returns the number of technical debt cards really taken (the pool may be empty)
+    private int takeTechnicalDebt(PlayerState player, int technicalDebtToTake) {
+        int technicalDebtTaken = 0;
+        for(int i=0;i<technicalDebtToTake;++i) {
+            if (takeBoardCard(player, CardType.TECHNICAL_DEBT, Pile.DISCARD) != null) {
+                listener.onCardAddedToDiscardPile(player, CardType.TECHNICAL_DEBT);
+                technicalDebtTaken++;
+            }
+        }
+        return technicalDebtTaken;
+    }
+
+    private void giveCard(PlayerState player, CardType givenCard) {
+        moveCard(givenCard, player, Pile.HAND, state.getOpponent(player), Pile.HAND);
+        player.setMustGiveCard(false);
+        listener.onGiveCard(player, givenCard);
+        if (player.getNumberOfCardsToThrow()==0) {
+            takeCard(player);
+        }
+    }
+
+    private void release(PlayerState player, int applicationId) {
+        Application application = state.getApplication(applicationId);
+        int badActionsUsed = application.canBeReleased(player, config);
+        state.removeApplication(application);
+        listener.onRelease(player, application);
+        player.setScore(player.getScore()+1);
+        player.discardPermanentSkills(listener);
+        int technicalDebtTaken = takeTechnicalDebt(player, badActionsUsed);
+        if (badActionsUsed>0) {
+            listener.onTechnicalDebtTaken(player, badActionsUsed, technicalDebtTaken);
+            listener.onTechnicalDebtChanged(player);
+        }
+        listener.onReleaseCompleted(player, badActionsUsed);
+        if (player.getScore()>=config.getApplicationsToWin()) {
+            state.setLastTurn(true);
+            listener.onEndGameTriggered(player);
+        }
+
+        listener.onScoreChanged(player);
+    }
+
+    //throws one card of the hand because of an end of cycle
+    private void throwCardAtEndOfCycle(PlayerState player, CardType thrownCard) {
+        moveCard(thrownCard, player, Pile.HAND, null, Pile.BOARD);
+        listener.onThrowCard(player, thrownCard, true);
+    }
+
+    private void move(PlayerState player, int zoneToMoveId, int zoneToTakeCardId) {
+        if (config.loseCardsAtEndOfCycle() && zoneToMoveId < player.getZoneId()) {
+            //End of cycle => technical debt
+            listener.onFinishCycle(player);
+            int throwableCardsCount = player.getNonTechnicalDebtCardsInHandCount();
+            CardType singleCardType = player.getSingleNonTechnicalDebtCardTypeInHand();
+            if (throwableCardsCount <= 2) {
+                //automatic technical debt
+                int technicalDebtToTake = 2-throwableCardsCount;
+                listener.onThrowAllCards(player);
+                for (int type=0;type<CardType.TECHNICAL_DEBT.ordinal();++type) {
+                    while (player.getCards(Pile.HAND)[type] > 0) {
+                        throwCardAtEndOfCycle(player, CardType.values()[type]);
+                    }
+                }
+                int technicalDebtTaken = takeTechnicalDebt(player, technicalDebtToTake);
+                if (technicalDebtToTake>0) {
+                    listener.onTechnicalDebtTaken(player, technicalDebtToTake, technicalDebtTaken);
+                    listener.onTechnicalDebtChanged(player);
+                }
+            }
+            else if (singleCardType != null) {
+                //only one card type => automatic throw
+                for (int i=0;i<2;++i) {
+                    throwCardAtEndOfCycle(player, singleCardType);
+                }
+            }
+            else {
+                player.setNumberOfCardsToThrow(2);
+            }
+        }
+        if (player.getNumberOfCardsToThrow()>0) {
+            listener.onPlayerMoved(player, player.getZoneId(), -1);
+            player.setZoneId(zoneToMoveId);
+            player.setMustTakeCard(zoneToTakeCardId);
+            return;
+        }
+        listener.onPlayerMoved(player, player.getZoneId(), zoneToMoveId);
+        player.setZoneId(zoneToMoveId);
+        listener.onMove(player);
+
+        checkDistance(player);
+
+        player.setMustTakeCard(zoneToTakeCardId);
+        if (!player.mustGiveCard()) {
+            takeCard(player);
+        }
+    }
+
+    private void takeCard(PlayerState player) {
+        CardType cardTaken = takeBoardCard(player, CardType.values()[player.getZoneToTakeCardId()], Pile.HAND);
+        if (cardTaken==null) {
+            listener.onUselessTakeCard(player, player.getZoneToTakeCardId());
+            return;
+        }
+        if (cardTaken == CardType.BONUS) {
+            listener.onSemiUselessTakeCard(player, player.getZoneToTakeCardId());
+        } else {
+            listener.onTakeCard(player, cardTaken);
+        }
+        listener.onCardTaken(player, cardTaken);
+        player.setMustTakeCard(-1);
+    }
+
+    private boolean canPlayActionCard(PlayerState activePlayer) {
+        return (config.canPlaySimpleCards() && activePlayer.canPlaySimpleCard())
+                || (config.canPlayComplexCards() && activePlayer.canPlayCard());
+    }
+
+    //moves to the next phase once the active player has played
+    public void nextPhase() {
+        PlayerState activePlayer = state.getActivePlayer();
+        GamePhase gamePhase = state.getGamePhase();
+        if (gamePhase == GamePhase.MOVE || gamePhase == GamePhase.GIVE_CARD || gamePhase == GamePhase.THROW_CARD) {
+            if (activePlayer.getNumberOfCardsToThrow()>0) {
+                state.setGamePhase(GamePhase.THROW_CARD);
+            }
+            else if (activePlayer.mustGiveCard()) {
+                state.setGamePhase(GamePhase.GIVE_CARD);
+            }
+            else if (canPlayActionCard(activePlayer)) {
+                startPlayCardPhase(activePlayer);
+            }
+            else if (canReleaseApplication(activePlayer)) {
+                state.setGamePhase(GamePhase.RELEASE);
+            }
+            else {
+                switchToNextPlayer(activePlayer);
+            }
+        }
+        else if (gamePhase == GamePhase.PLAY_CARD) {
+            activePlayer.removeOnePlay();
+            if (activePlayer.getPlaysLeft() <= 0) {
+                listener.onNoMorePlayingCardAllowed(activePlayer);
+                activePlayer.setPlaysLeft(0);
+                if (canReleaseApplication(activePlayer)) {
+                    state.setGamePhase(GamePhase.RELEASE);
+                }
+                else {
+                    switchToNextPlayer(activePlayer);
+                }
+            }
+            else if (!canPlayActionCard(activePlayer)) {
+                listener.onNoCardToPlay(activePlayer);
+                activePlayer.setPlaysLeft(0);
+                if (canReleaseApplication(activePlayer)) {
+                    state.setGamePhase(GamePhase.RELEASE);
+                }
+                else {
+                    switchToNextPlayer(activePlayer);
+                }
+            }
+        }
+        else if (gamePhase == GamePhase.RELEASE) {
+            switchToNextPlayer(activePlayer);
+        }
+        if (Zobrist.CHECK) {
+            state.checkHash();
+        }
+    }
+
+    private void startPlayCardPhase(PlayerState player) {
+        state.setGamePhase(GamePhase.PLAY_CARD);
+        player.setPlaysLeft(1);
+    }
+
+    private void switchToNextPlayer(PlayerState player) {
+        player.discardAndRedrawCards(state.getRandom(), listener);
+        listener.onDiscardCards(player);
+        state.setGamePhase(GamePhase.MOVE);
+        //move to next player
+        int activePlayerId = (state.getActivePlayerId() + 1) % state.getPlayers().length;
+        state.setActivePlayerId(activePlayerId);
+        if (activePlayerId==0 && state.isLastTurn()) {
+            state.setGameOver(true);
+        }
+    }
+
+    //Sends input data to the player bot for one turn
+    public List<String> getCurrentFrameInfoFor(PlayerState player, GamePhase gamePhase) {
+        List<String> lines = new ArrayList<>();
+        //objectives data
+        lines.add(Integer.toString(state.getApplications().size()));
+        for(Application application : state.getApplications()) {
+            lines.add(application.toString());
+        }
+        //Player information, receiving player first
+        PlayerState opponentPlayer = state.getOpponent(player);
+        lines.add(String.format("%d %d %d %d", player.getZoneId(), player.getScore(), player.getPermanentDailyRoutineCardsCount(), player.getPermanentArchitectureStudyCardsCount()));
+        lines.add(String.format("%d %d %d %d", opponentPlayer.getZoneId(), opponentPlayer.getScore(), opponentPlayer.getPermanentDailyRoutineCardsCount(), opponentPlayer.getPermanentArchitectureStudyCardsCount()));
+        List<String> cardLocations = new ArrayList<>();
+        cardLocations.addAll(player.getCardsInfo());
+        cardLocations.add("OPPONENT_" + opponentPlayer.getGlobalCardsInfo());
+        if (opponentPlayer.getCardsCount(Pile.AUTOMATED) > 0) {
+            cardLocations.add("OPPONENT_" + opponentPlayer.getAutomatedCardsInfo());
+        }
+        lines.add(Integer.toString(cardLocations.size()));
+        lines.addAll(cardLocations);
+
+        //possible moves
+        List<String> possibleActions = getPossibleActions(player, gamePhase);
+        lines.add(String.valueOf(possibleActions.size()));
+        lines.addAll(possibleActions);
+        return lines;
+    }
+
+    //the possible actions as sent to a bot: RANDOM is listed just before WAIT, or last if WAIT is not possible
+    public List<String> getPossibleActions(PlayerState player, GamePhase gamePhase) {
+        int count = getPossibleActions(player, gamePhase, possibleActions);
+        List<String> actions = new ArrayList<>(count + 1);
+        boolean randomAdded = false;
+        for (int i=0;i<count;++i) {
+            if (ActionCode.getKind(possibleActions[i]) == ActionCode.WAIT) {
+                actions.add("RANDOM");
+                randomAdded = true;
+            }
+            actions.add(ActionCode.toString(possibleActions[i]));
+        }
+        if (!randomAdded) {
+            actions.add("RANDOM");
+        }
+        return actions;
+    }
+
+    //the only possible action of the player in this phase (a single type of card to give or throw, or WAIT when nothing
+    //can be played or released), no action if the player has a choice
+    public int getForcedAction(PlayerState player, GamePhase gamePhase) {
+        return getPossibleActions(player, gamePhase, possibleActions) == 1 ? possibleActions[0] : ActionCode.noAction();
+    }
+
+    /**
+     * Writes the possible actions of a player as {@link ActionCode}s in the buffer (at least {@link #MAX_POSSIBLE_ACTIONS} long)
+     * and returns how many there are. Nothing is allocated, so it can be used by a search.
+     */
+    public int getPossibleActions(PlayerState player, GamePhase gamePhase, int[] buffer) {
+        switch (gamePhase) {
+            case MOVE:
+                return getPossibleMoves(player, buffer);
+            case GIVE_CARD:
+                return getPossibleHandActions(player, buffer, ActionCode.GIVE);
+            case THROW_CARD:
+                return getPossibleHandActions(player, buffer, ActionCode.THROW);
+            case PLAY_CARD:
+                return getPossiblePlays(player, buffer);
+            case RELEASE:
+                return getPossibleReleases(player, buffer);
+            default:
+                return 0;
+        }
+    }
+
+    //adds an action to the buffer unless it is already there, returns the new actions count
+    private int addPossibleAction(int[] buffer, int count, int action) {
+        int arguments = ActionCode.getArguments(action);
+        long bit = 1L << arguments;
+        if ((possibleActionsSeen[arguments >>> 6] & bit) != 0) {
+            return count;
+        }
+        possibleActionsSeen[arguments >>> 6] |= bit;
+        buffer[count] = action;
+        return count + 1;
+    }
+
+    //the buffer only holds actions of a same kind, so their arguments are enough to clear the bitset
+    private int clearPossibleActionsSeen(int[] buffer, int count) {
+        for (int i=0;i<count;++i) {
+            possibleActionsSeen[ActionCode.getArguments(buffer[i]) >>> 6] = 0;
+        }
+        return count;
+    }
+
+    private int getPossibleMoves(PlayerState player, int[] buffer) {
+        int count = 0;
+        int zoneMaxShift = player.getPermanentDailyRoutineCardsCount();
+        if (zoneMaxShift>0) {
+            for (int i=1;i<Config.ZONES_COUNT;++i) {
+                int moveTarget = (player.getZoneId() + i) % Config.ZONES_COUNT;
+                for(int j=-zoneMaxShift;j<=zoneMaxShift;++j) {
+                    int zone = (moveTarget + j +Config.ZONES_COUNT)%Config.ZONES_COUNT;
+                    count = addPossibleAction(buffer, count, ActionCode.move(moveTarget, zone));
+                }
+            }
+        }
+        else {
+            for (int i=1;i<Config.ZONES_COUNT;++i) {
+                int moveTarget = (player.getZoneId() + i)%Config.ZONES_COUNT;
+                count = addPossibleAction(buffer, count, ActionCode.move(moveTarget, moveTarget));
+            }
+        }
+        if (player.getZoneId()<0) {
+            //1st turn, can go to 8 places
+            int moveTarget = (player.getZoneId() + Config.ZONES_COUNT)%Config.ZONES_COUNT;
+            count = addPossibleAction(buffer, count, ActionCode.move(moveTarget, moveTarget));
+        }
+        return clearPossibleActionsSeen(buffer, count);
+    }
+
+    //gives or throws: one action per type of non technical debt card in hand
+    private int getPossibleHandActions(PlayerState player, int[] buffer, int kind) {
+        int count = 0;
+        int[] hand = player.getCards(Pile.HAND);
+        for (int type=0;type<CardType.TECHNICAL_DEBT.ordinal();++type) {
+            if (hand[type] > 0) {
+                buffer[count++] = kind == ActionCode.GIVE ? ActionCode.give(type) : ActionCode.throwCard(type);
+            }
+        }
+        return count;
+    }
+
+    private int getPossiblePlays(PlayerState player, int[] buffer) {
+        int count = 0;
+        int[] hand = player.getCards(Pile.HAND);
+        for (CardType cardType : CardType.values()) {
+            if (!PlayerState.isActionCard(cardType) || hand[cardType.ordinal()] == 0) {
+                continue;
+            }
+            if (!config.canPlayComplexCards()) {
+                if (PlayerState.isSimpleActionCard(cardType)) {
+                    buffer[count++] = ActionCode.play(cardType.ordinal());
+                }
+            }
+            else if (cardType == CardType.TASK_PRIORITIZATION || cardType == CardType.CONTINUOUS_INTEGRATION) {
+                //the other card must not be the played card itself
+                for (int type=0;type<CardType.TECHNICAL_DEBT.ordinal();++type) {
+                    int available = hand[type] - (type == cardType.ordinal() ? 1 : 0);
+                    if (available <= 0) {
+                        continue;
+                    }
+                    if (cardType == CardType.TASK_PRIORITIZATION) {
+                        for (int zoneId = 0; zoneId < Config.ZONES_COUNT; ++zoneId) {
+                            buffer[count++] = ActionCode.play(cardType.ordinal(), type, zoneId);
+                        }
+                    }
+                    else {
+                        buffer[count++] = ActionCode.play(cardType.ordinal(), type);
+                    }
+                }
+            }
+            else {
+                buffer[count++] = ActionCode.play(cardType.ordinal());
+            }
+        }
+        buffer[count++] = ActionCode.waitAction();
+        return count;
+    }
+
+    private int getPossibleReleases(PlayerState player, int[] buffer) {
+        int count = 0;
+        for (Application application : state.getApplications()) {
+            if (application.canBeReleased(player, config)>=0) {
+                buffer[count++] = ActionCode.release(application.getId());
+            }
+        }
+        buffer[count++] = ActionCode.waitAction();
+        return count;
+    }
+
+    public boolean canReleaseApplication(PlayerState player) {
+        for (Application application : state.getApplications()) {
+            if (application.canBeReleased(player, config)>=0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<Application> getReleasableApplications(PlayerState player) {
+        List<Application> releasable = new ArrayList<>();
+        for (Application application : state.getApplications()) {
+            if (application.canBeReleased(player, config)>=0) {
+                releasable.add(application);
+            }
+        }
+        return releasable;
+    }
+}
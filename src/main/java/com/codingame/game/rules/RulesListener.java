@@ -0,0 +1,63 @@
+package com.codingame.game.rules;
+
+import com.codingame.game.Application;
+import com.codingame.game.card.CardType;
+
+/**
+ * Receives everything the rules engine does, in the order it happens.
+ * Every card move is reported by {@link #onCardMoved} before the event that explains it.
+ * The referee plugs the view and the game summary in here; headless runs use {@link #NONE}.
+ */
+public interface RulesListener {
+    RulesListener NONE = new RulesListener() {
+    };
+
+    // cards and board
+    //a card changed of pile, a null player means the board (or nowhere if the pile is null too: the card is lost)
+    default void onCardMoved(CardType cardType, PlayerState from, Pile fromPile, PlayerState to, Pile toPile) {}
+    default void onCardTaken(PlayerState player, CardType cardType) {}
+    default void onCardAddedToDiscardPile(PlayerState player, CardType cardType) {}
+    default void onTechnicalDebtChanged(PlayerState player) {}
+    default void onPlayerMoved(PlayerState player, int zoneFrom, int zoneTo) {}
+    default void onScoreChanged(PlayerState player) {}
+
+    // move phase
+    default void onMove(PlayerState player) {}
+    default void onFinishCycle(PlayerState player) {}
+    default void onThrowAllCards(PlayerState player) {}
+    default void onThrowCard(PlayerState player, CardType cardType, boolean endOfCycle) {}
+    default void onMustGiveCard(PlayerState player) {}
+    default void onGiveCard(PlayerState player, CardType cardType) {}
+    default void onTakeCard(PlayerState player, CardType cardType) {}
+    default void onSemiUselessTakeCard(PlayerState player, int zoneToTakeCardId) {}
+    default void onUselessTakeCard(PlayerState player, int zoneToTakeCardId) {}
+    default void onTechnicalDebtTaken(PlayerState player, int technicalDebtToTake, int technicalDebtTaken) {}
+
+    // play card phase
+    default void onWait(PlayerState player) {}
+    default void onTraining(PlayerState player, int cardsDrawn) {}
+    default void onCoding(PlayerState player, int cardsDrawn) {}
+    default void onDailyRoutine(PlayerState player) {}
+    default void onArchitectureStudy(PlayerState player) {}
+    default void onUselessTaskPrioritization(PlayerState player, CardType cardTypeToThrow) {}
+    default void onReallyUselessTaskPrioritization(PlayerState player, CardType cardTypeToTake) {}
+    default void onSemiUselessTaskPrioritization(PlayerState player, CardType cardTypeToTake) {}
+    default void onUsefulTaskPrioritization(PlayerState player, CardType cardTypeThrown, CardType cardTypeTaken) {}
+    default void onUselessContinuousIntegration(PlayerState player, CardType cardType) {}
+    default void onUsefulContinuousIntegration(PlayerState player, CardType cardType) {}
+    default void onUselessCodeReview(PlayerState player) {}
+    default void onSemiUsefulCodeReview(PlayerState player) {}
+    default void onUsefulCodeReview(PlayerState player) {}
+    default void onUselessRefactoring(PlayerState player) {}
+    default void onRefactoring(PlayerState player) {}
+
+    // release phase
+    default void onRelease(PlayerState player, Application application) {}
+    default void onReleaseCompleted(PlayerState player, int badActionsUsed) {}
+    default void onEndGameTriggered(PlayerState player) {}
+
+    // phase changes
+    default void onNoMorePlayingCardAllowed(PlayerState player) {}
+    default void onNoCardToPlay(PlayerState player) {}
+    default void onDiscardCards(PlayerState player) {}
+}
@@ -0,0 +1,42 @@
+package com.codingame.game.rules;
+
+import java.util.Arrays;
+
+/**
+ * Stack of snapshots of a {@link GameState}, one per applied action.
+ * A snapshot is a few hundred ints, and the buffer is kept between searches: once it reached the search depth,
+ * applying and undoing actions does not allocate anything.
+ */
+class UndoLog {
+    private final GameState state;
+    private final int snapshotSize;
+    private int[] buffer;
+    private int depth;
+
+    UndoLog(GameState state) {
+        this.state = state;
+        snapshotSize = state.getSnapshotSize();
+        buffer = new int[snapshotSize * 16];
+    }
+
+    void save() {
+        int offset = depth * snapshotSize;
+        if (offset + snapshotSize > buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        state.save(buffer, offset);
+        depth++;
+    }
+
+    void restore() {
+        if (depth == 0) {
+            throw new IllegalStateException("No action to undo");
+        }
+        depth--;
+        state.restore(buffer, depth * snapshotSize);
+    }
+
+    int getDepth() {
+        return depth;
+    }
+}
@@ -0,0 +1,49 @@
+package com.codingame.game.rules;
+
+/**
+ * Zobrist keys of the state features: a pseudo random 64-bit key per (feature, value), the hash of a state being the
+ * sum of the keys of its features values. The keys are computed rather than tabulated, so the card counts need no upper
+ * bound, and they are summed rather than xored, which keeps a feature change a subtraction and an addition either way.
+ * The random generator is not hashed: two states only differing by it are the same position.
+ */
+final class Zobrist {
+    //when set, the rules check the incremental hash against a full recompute after every phase
+    static final boolean CHECK = System.getProperty("check.state.hash") != null;
+
+    //game state features
+    static final int BOARD_CARDS = 0;
+    static final int APPLICATION_IN_PLAY = BOARD_CARDS + PlayerState.CARD_TYPES_COUNT;
+    static final int GAME_PHASE = APPLICATION_IN_PLAY + 64;
+    static final int ACTIVE_PLAYER = GAME_PHASE + 1;
+    static final int LAST_TURN = ACTIVE_PLAYER + 1;
+    static final int GAME_OVER = LAST_TURN + 1;
+    static final int PLAYERS = GAME_OVER + 1;
+
+    //player features, from the first feature of the player
+    static final int SCORE = 0;
+    static final int ZONE = 1;
+    static final int PLAYS_LEFT = 2;
+    static final int CARDS_TO_THROW = 3;
+    static final int MUST_GIVE_CARD = 4;
+    static final int ZONE_TO_TAKE_CARD = 5;
+    static final int PILE_CARDS = 6;
+    static final int PLAYER_FEATURES = PILE_CARDS + Pile.PLAYER_PILES_COUNT * PlayerState.CARD_TYPES_COUNT;
+
+    private static final long SEED = 0x5DEECE66DL;
+
+    private Zobrist() {
+    }
+
+    //SplitMix64 of the feature and its value
+    static long key(int feature, int value) {
+        long z = ((long) feature << 32 | (value & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L + SEED;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    //hash difference when a feature goes from a value to another
+    static long change(int feature, int oldValue, int newValue) {
+        return key(feature, newValue) - key(feature, oldValue);
+    }
+}
@@ -0,0 +1,177 @@
+package com.codingame.game.stats;
+
+import com.codingame.game.ApplicationFactory;
+import com.codingame.game.Config;
+import com.codingame.game.card.CardType;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Balance statistics over any number of games, in a fixed size: counters and histograms only, so that a corpus is
+ * streamed through a {@link GameStatsCollector} and never held. Stats gathered by several threads are merged.
+ */
+public class GameStats {
+    static final int APPLICATIONS_COUNT = new ApplicationFactory().getApplicationsCount();
+    //the last bins count the larger values too
+    static final int MAX_ROUNDS = Config.MAX_TURNS;
+    static final int MAX_TECHNICAL_DEBT = 100;
+    private static final CardType[] CARD_TYPES = CardType.values();
+
+    private long gamesCount;
+    private final long[] cardPlays = new long[CARD_TYPES.length];
+    //by round of the releasing player
+    private final long[] releaseRounds = new long[MAX_ROUNDS + 1];
+    //by technical debt cards of each player at the end
+    private final long[] endTechnicalDebts = new long[MAX_TECHNICAL_DEBT + 1];
+    //by application id
+    private final long[] releases = new long[APPLICATIONS_COUNT];
+    private final long[] firstReleases = new long[APPLICATIONS_COUNT];
+    //cards to give because of GIVE_CARD_IF_TOO_CLOSE_TO_OPPONENT, and games where it happened
+    private long mustGiveCardsCount;
+    private long mustGiveCardGamesCount;
+
+    void addCardPlay(CardType cardType) {
+        cardPlays[cardType.ordinal()]++;
+    }
+
+    void addRelease(int applicationId, int round, boolean first) {
+        releases[applicationId]++;
+        if (first) {
+            firstReleases[applicationId]++;
+        }
+        releaseRounds[Math.min(round, MAX_ROUNDS)]++;
+    }
+
+    void addMustGiveCard() {
+        mustGiveCardsCount++;
+    }
+
+    void addGame(int[] technicalDebts, boolean mustGiveCard) {
+        gamesCount++;
+        for (int technicalDebt : technicalDebts) {
+            endTechnicalDebts[Math.min(technicalDebt, MAX_TECHNICAL_DEBT)]++;
+        }
+        if (mustGiveCard) {
+            mustGiveCardGamesCount++;
+        }
+    }
+
+    void clear() {
+        gamesCount = 0;
+        Arrays.fill(cardPlays, 0);
+        Arrays.fill(releaseRounds, 0);
+        Arrays.fill(endTechnicalDebts, 0);
+        Arrays.fill(releases, 0);
+        Arrays.fill(firstReleases, 0);
+        mustGiveCardsCount = 0;
+        mustGiveCardGamesCount = 0;
+    }
+
+    //adds the games of other to these ones, other being left as is
+    public synchronized void merge(GameStats other) {
+        gamesCount += other.gamesCount;
+        add(cardPlays, other.cardPlays);
+        add(releaseRounds, other.releaseRounds);
+        add(endTechnicalDebts, other.endTechnicalDebts);
+        add(releases, other.releases);
+        add(firstReleases, other.firstReleases);
+        mustGiveCardsCount += other.mustGiveCardsCount;
+        mustGiveCardGamesCount += other.mustGiveCardGamesCount;
+    }
+
+    private static void add(long[] counts, long[] otherCounts) {
+        for (int i=0;i<counts.length;++i) {
+            counts[i] += otherCounts[i];
+        }
+    }
+
+    public long getGamesCount() {
+        return gamesCount;
+    }
+
+    public long getCardPlays(CardType cardType) {
+        return cardPlays[cardType.ordinal()];
+    }
+
+    public long getReleases(int applicationId) {
+        return releases[applicationId];
+    }
+
+    public long getFirstReleases(int applicationId) {
+        return firstReleases[applicationId];
+    }
+
+    //releases in the given round of the releasing player (1 for their first move)
+    public long getReleaseRounds(int round) {
+        return releaseRounds[Math.min(round, MAX_ROUNDS)];
+    }
+
+    //players ending a game with the given technical debt
+    public long getEndTechnicalDebts(int technicalDebt) {
+        return endTechnicalDebts[Math.min(technicalDebt, MAX_TECHNICAL_DEBT)];
+    }
+
+    public long getMustGiveCardsCount() {
+        return mustGiveCardsCount;
+    }
+
+    public long getMustGiveCardGamesCount() {
+        return mustGiveCardGamesCount;
+    }
+
+    public synchronized void print(PrintStream out) {
+        out.println(String.format("%d games", gamesCount));
+        long playsCount = 0;
+        for (long plays : cardPlays) {
+            playsCount += plays;
+        }
+        out.println(String.format("%-25s %9s %7s %9s", "card", "plays", "share", "per game"));
+        for (CardType cardType : CARD_TYPES) {
+            long plays = cardPlays[cardType.ordinal()];
+            if (plays > 0) {
+                out.println(String.format("%-25s %9d %6.1f%% %9.2f", cardType, plays, 100.0 * plays / playsCount,
+                        (double) plays / gamesCount));
+            }
+        }
+        out.println(String.format("%-25s %9s %9s %9s", "application", "releases", "first", "first %"));
+        for (int i=0;i<APPLICATIONS_COUNT;++i) {
+            if (releases[i] > 0) {
+                out.println(String.format("%-25d %9d %9d %8.1f%%", i, releases[i], firstReleases[i],
+                        100.0 * firstReleases[i] / releases[i]));
+            }
+        }
+        out.println("release rounds: " + summarize(releaseRounds));
+        out.println("technical debt at the end: " + summarize(endTechnicalDebts));
+        out.println(String.format("cards to give when too close to the opponent: %d (%.2f per game, in %.1f%% of the games)",
+                mustGiveCardsCount, (double) mustGiveCardsCount / gamesCount, 100.0 * mustGiveCardGamesCount / gamesCount));
+    }
+
+    //mean and quartiles of a histogram
+    private static String summarize(long[] histogram) {
+        long count = 0;
+        double sum = 0;
+        for (int i=0;i<histogram.length;++i) {
+            count += histogram[i];
+            sum += (double) i * histogram[i];
+        }
+        if (count == 0) {
+            return "none";
+        }
+        return String.format("mean %.1f, min %d, q1 %d, median %d, q3 %d, max %d", sum / count,
+                quantile(histogram, count, 0), quantile(histogram, count, 0.25), quantile(histogram, count, 0.5),
+                quantile(histogram, count, 0.75), quantile(histogram, count, 1));
+    }
+
+    private static int quantile(long[] histogram, long count, double q) {
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        long seen = 0;
+        for (int i=0;i<histogram.length;++i) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return i;
+            }
+        }
+        return histogram.length - 1;
+    }
+}
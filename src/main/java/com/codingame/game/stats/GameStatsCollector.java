@@ -0,0 +1,72 @@
+package com.codingame.game.stats;
+
+import com.codingame.game.Application;
+import com.codingame.game.card.CardType;
+import com.codingame.game.rules.Pile;
+import com.codingame.game.rules.PlayerState;
+import com.codingame.game.rules.RulesListener;
+
+/**
+ * Listens to the rules of one game at a time and adds it to its {@link GameStats}: plug it in the rules of a live
+ * game or of a replay, then call {@link #endGame} (or {@link #discardGame} if the game does not count).
+ * A collector, and its stats, are used by one thread; the stats of several collectors are merged.
+ */
+public class GameStatsCollector implements RulesListener {
+    private final GameStats stats;
+    //the running game: moves done by each player, stats to add at its end
+    private final int[] rounds = new int[2];
+    private boolean released;
+    private boolean mustGiveCard;
+    private final GameStats gameStats = new GameStats();
+
+    public GameStatsCollector(GameStats stats) {
+        this.stats = stats;
+    }
+
+    public GameStatsCollector() {
+        this(new GameStats());
+    }
+
+    public GameStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public void onCardMoved(CardType cardType, PlayerState from, Pile fromPile, PlayerState to, Pile toPile) {
+        if (fromPile == Pile.HAND && (toPile == Pile.PLAYED_CARDS || toPile == Pile.PERMANENT_SKILLS)) {
+            gameStats.addCardPlay(cardType);
+        }
+    }
+
+    @Override
+    public void onMove(PlayerState player) {
+        rounds[player.getIndex()]++;
+    }
+
+    @Override
+    public void onMustGiveCard(PlayerState player) {
+        gameStats.addMustGiveCard();
+        mustGiveCard = true;
+    }
+
+    @Override
+    public void onRelease(PlayerState player, Application application) {
+        gameStats.addRelease(application.getId(), rounds[player.getIndex()], !released);
+        released = true;
+    }
+
+    //the game ended with these technical debts by player
+    public void endGame(int[] technicalDebts) {
+        gameStats.addGame(technicalDebts, mustGiveCard);
+        stats.merge(gameStats);
+        discardGame();
+    }
+
+    public void discardGame() {
+        gameStats.clear();
+        rounds[0] = 0;
+        rounds[1] = 0;
+        released = false;
+        mustGiveCard = false;
+    }
+}
@@ -0,0 +1,93 @@
+package com.codingame.game.timing;
+
+/**
+ * Durations in ns counted in log-linear buckets: 8 buckets per power of 2, so a percentile is known within 12.5%
+ * whatever the scale, in a fixed size. Recording a duration is a few arithmetic operations, without allocation.
+ * Histograms are merged, e.g. those of the matches of a run.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS_COUNT;
+
+    private final long[] counts = new long[BUCKETS_COUNT];
+    private long count;
+    private long sum;
+    private long max;
+
+    public void record(long duration) {
+        if (duration < 0) {
+            duration = 0;
+        }
+        counts[getBucket(duration)]++;
+        count++;
+        sum += duration;
+        if (duration > max) {
+            max = duration;
+        }
+    }
+
+    //the values below 8 have a bucket each, then every power of 2 is cut in 8
+    private static int getBucket(long value) {
+        if (value < SUB_BUCKETS_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS_COUNT + subBucket;
+    }
+
+    //largest value of a bucket
+    private static long getBucketMax(int bucket) {
+        if (bucket < SUB_BUCKETS_COUNT) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS_COUNT + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS_COUNT;
+        long min = (SUB_BUCKETS_COUNT + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return min + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    public void merge(LatencyHistogram other) {
+        for (int i=0;i<BUCKETS_COUNT;++i) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    //upper bound of the duration at quantile q (0.5 for the median), 0 if nothing was recorded
+    public long getPercentile(double q) {
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        long seen = 0;
+        for (int i=0;i<BUCKETS_COUNT;++i) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(getBucketMax(i), max);
+            }
+        }
+        return max;
+    }
+
+    public String toJson() {
+        return String.format("{\"count\":%d,\"mean\":%.0f,\"p50\":%d,\"p99\":%d,\"max\":%d}",
+                count, getMean(), getPercentile(0.5), getPercentile(0.99), max);
+    }
+}
@@ -0,0 +1,113 @@
+package com.codingame.game.timing;
+
+import com.google.inject.Singleton;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Where the referee time goes: every stage of a turn is timed in ns into a {@link LatencyHistogram} of the match, and
+ * of the run (all the matches of this JVM). The timings are on with -Dreferee.timings=FILE, and one JSON line per
+ * match is appended to FILE at its end:
+ * <pre>{"seed":S,"turns":N,"match":{"FRAME_INPUT":{"count":..,"mean":..,"p50":..,"p99":..,"max":..},...},"run":{...}}</pre>
+ * Otherwise the timers do nothing, not even reading the clock.
+ */
+@Singleton
+public class RefereeTimings {
+    public static final String FILE = System.getProperty("referee.timings");
+    public static final boolean ENABLED = FILE != null;
+
+    public enum Stage {
+        //game turn data reset and start of the phase in the game summary
+        FRAME_INPUT,
+        //input lines sent, when the bot is queried
+        SEND_INPUT,
+        //waiting for the bot outputs
+        BOT_RESPONSE,
+        PARSE_COMMAND,
+        GAME_UPDATE,
+        NEXT_PHASE,
+        GAME_SUMMARY,
+        REFRESH_CARDS,
+        REFRESH_APPLICATIONS,
+        REFRESH_PLAYERS_TOOLTIPS,
+        //the whole turn
+        TURN
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final LatencyHistogram[] RUN_HISTOGRAMS = newHistograms();
+
+    private final LatencyHistogram[] histograms = newHistograms();
+    private int turnsCount;
+
+    private static LatencyHistogram[] newHistograms() {
+        LatencyHistogram[] histograms = new LatencyHistogram[STAGES.length];
+        for (int i=0;i<STAGES.length;++i) {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+
+    //start time of a turn, to pass to lap
+    public long start() {
+        if (!ENABLED) {
+            return 0;
+        }
+        turnsCount++;
+        return System.nanoTime();
+    }
+
+    //records the time since the last lap (or start) in stage, and returns the time now as the next lap start
+    public long lap(Stage stage, long lapStart) {
+        if (!ENABLED) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        histograms[stage.ordinal()].record(now - lapStart);
+        return now;
+    }
+
+    //records the time since start as the whole turn
+    public void end(long turnStart) {
+        if (ENABLED) {
+            histograms[Stage.TURN.ordinal()].record(System.nanoTime() - turnStart);
+        }
+    }
+
+    public LatencyHistogram getHistogram(Stage stage) {
+        return histograms[stage.ordinal()];
+    }
+
+    //adds the match to the run and appends both to the file
+    public void endMatch(long seed) {
+        if (!ENABLED) {
+            return;
+        }
+        synchronized (RUN_HISTOGRAMS) {
+            for (int i=0;i<STAGES.length;++i) {
+                RUN_HISTOGRAMS[i].merge(histograms[i]);
+            }
+            String json = String.format("{\"seed\":%d,\"turns\":%d,\"match\":%s,\"run\":%s}", seed, turnsCount,
+                    toJson(histograms), toJson(RUN_HISTOGRAMS));
+            try (Writer writer = new FileWriter(FILE, true)) {
+                writer.write(json);
+                writer.write('\n');
+            } catch (IOException e) {
+                System.err.println("Cannot write the referee timings to " + FILE + ": " + e);
+            }
+        }
+    }
+
+    private static String toJson(LatencyHistogram[] histograms) {
+        StringBuilder json = new StringBuilder("{");
+        for (int i=0;i<STAGES.length;++i) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(STAGES[i]).append("\":").append(histograms[i].toJson());
+        }
+        return json.append('}').toString();
+    }
+}
@@ -0,0 +1,23 @@
+package com.codingame.game.tournament;
+
+/**
+ * A bot played in the same JVM as the match: it is called on the match thread with the input of each of its turns
+ * and returns its command, the same line a bot would write on stdout. Nothing is parsed or printed on the way, so an
+ * in-house bot written against this interface costs only its own CPU time.
+ * An agent is created for one match and closed at its end, unless it can be reset for the next one. It is trusted to
+ * answer within {@link TurnInput#getTimeout()}.
+ */
+public interface Agent extends AutoCloseable {
+    //the command of the turn, null if the agent has no answer (it is disqualified as for a timeout)
+    String play(TurnInput input) throws InterruptedException;
+
+    //prepares the agent for a new match within timeout ms (the first turn time of the matches), false if it cannot be
+    //reused (it is then closed)
+    default boolean reset(int timeout) throws InterruptedException {
+        return false;
+    }
+
+    @Override
+    default void close() {
+    }
+}
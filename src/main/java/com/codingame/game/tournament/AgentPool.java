@@ -0,0 +1,57 @@
+package com.codingame.game.tournament;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The agents of a bot, leased for a match: when the bot is reusable, an agent which played its match to the end is
+ * reset and kept for the next one instead of starting a new one, its process and JIT being warm already.
+ */
+class AgentPool implements AutoCloseable {
+    private final BotDescriptor bot;
+    private final Queue<Agent> idleAgents = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger createdCount = new AtomicInteger();
+
+    AgentPool(BotDescriptor bot) {
+        this.bot = bot;
+    }
+
+    Agent lease() throws IOException {
+        Agent agent = idleAgents.poll();
+        if (agent == null) {
+            agent = bot.createAgent();
+            createdCount.incrementAndGet();
+        }
+        return agent;
+    }
+
+    //healthy is false if the agent crashed, timed out or was disqualified: it is not reused, else it has resetTimeout ms
+    //to be ready for the next match
+    void release(Agent agent, boolean healthy, int resetTimeout) throws InterruptedException {
+        boolean reused = false;
+        try {
+            reused = healthy && bot.isReusable() && agent.reset(resetTimeout);
+        } finally {
+            if (reused) {
+                idleAgents.add(agent);
+            } else {
+                agent.close();
+            }
+        }
+    }
+
+    //agents started so far
+    int getCreatedCount() {
+        return createdCount.get();
+    }
+
+    @Override
+    public void close() {
+        Agent agent;
+        while ((agent = idleAgents.poll()) != null) {
+            agent.close();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.codingame.game.tournament;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+
+/**
+ * A bot of a tournament: its name and how to start it for a match.
+ * It is written "[name=]bot", the bot being one of:
+ * <ul>
+ *     <li>a Java class implementing {@link Agent} found on the classpath, created for each match and called directly</li>
+ *     <li>a Java class with a main method found on the classpath, run in the same JVM by a {@link StdioAgent}</li>
+ *     <li>"jvm:" and such a class, run in a new JVM with the same classpath</li>
+ *     <li>any program and its arguments</li>
+ * </ul>
+ * With "reuse:" before the bot, its agents are reset and reused from one match to the next (see {@link Agent#reset(int)}
+ * and {@link LineAgent#RESET} for programs).
+ */
+public class BotDescriptor {
+    private static final String JVM_PREFIX = "jvm:";
+    private static final String REUSE_PREFIX = "reuse:";
+
+    private final String name;
+    private final AgentFactory factory;
+    private boolean reusable;
+
+    //creates the agent of a match
+    public interface AgentFactory {
+        Agent create() throws IOException;
+    }
+
+    public BotDescriptor(String name, AgentFactory factory) {
+        this.name = name;
+        this.factory = factory;
+    }
+
+    public static BotDescriptor parse(String descriptor) {
+        int separator = descriptor.indexOf('=');
+        String name = separator < 0 ? null : descriptor.substring(0, separator);
+        String bot = descriptor.substring(separator + 1).trim();
+        if (bot.startsWith(REUSE_PREFIX)) {
+            BotDescriptor reusableBot = parse((name == null ? "" : name + "=") + bot.substring(REUSE_PREFIX.length()));
+            reusableBot.setReusable(true);
+            return reusableBot;
+        }
+        if (bot.startsWith(JVM_PREFIX)) {
+            String className = bot.substring(JVM_PREFIX.length());
+            String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+            return new BotDescriptor(name == null ? className : name,
+                    () -> new BotProcess(Arrays.asList(java, "-cp", System.getProperty("java.class.path"), className)));
+        }
+        Class<?> botClass = findClass(bot);
+        if (botClass != null && Agent.class.isAssignableFrom(botClass)) {
+            return new BotDescriptor(name == null ? bot : name, () -> newAgent(botClass.asSubclass(Agent.class)));
+        }
+        Method main = botClass == null ? null : findMain(botClass);
+        if (main != null) {
+            return new BotDescriptor(name == null ? bot : name, () -> new StdioAgent(main));
+        }
+        return new BotDescriptor(name == null ? bot : name, () -> new BotProcess(Arrays.asList(bot.split("\\s+"))));
+    }
+
+    private static Class<?> findClass(String className) {
+        try {
+            return Class.forName(className, false, BotDescriptor.class.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static Method findMain(Class<?> botClass) {
+        try {
+            Method main = botClass.getMethod("main", String[].class);
+            return Modifier.isStatic(main.getModifiers()) ? main : null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static Agent newAgent(Class<? extends Agent> agentClass) throws IOException {
+        try {
+            return agentClass.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IOException("Cannot create agent " + agentClass.getName(), e);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    //true if the agents of the bot support the reset for a new match
+    public boolean isReusable() {
+        return reusable;
+    }
+
+    public void setReusable(boolean reusable) {
+        this.reusable = reusable;
+    }
+
+    public Agent createAgent() throws IOException {
+        return factory.create();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
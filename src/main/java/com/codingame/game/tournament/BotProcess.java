@@ -0,0 +1,117 @@
+package com.codingame.game.tournament;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bot run as an external program: it reads its turn input on stdin and answers on stdout, its stderr is discarded.
+ * The outputs are read by a daemon thread, so that a slow bot can be timed out.
+ * When the match runs on a virtual thread, the outputs are polled by the match thread while it waits for an answer
+ * instead: a blocking read of a pipe would hold a carrier thread.
+ */
+class BotProcess extends LineAgent {
+    private static final File NULL_FILE = new File(System.getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null");
+    //pauses between two polls of the outputs, in ns
+    private static final long MIN_POLL_DELAY = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long MAX_POLL_DELAY = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Process process;
+    private final OutputStream input;
+    private final boolean polled;
+    //polled bytes of the next output line
+    private final ByteArrayOutputStream outputLine = new ByteArrayOutputStream();
+
+    BotProcess(List<String> command) throws IOException {
+        process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.appendTo(NULL_FILE))
+                .start();
+        input = process.getOutputStream();
+        polled = VirtualThreads.isVirtual(Thread.currentThread());
+        if (!polled) {
+            Thread reader = new Thread(() -> readOutputs(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8)),
+                    "bot-output-" + command.get(command.size() - 1));
+            reader.setDaemon(true);
+            reader.start();
+        }
+    }
+
+    @Override
+    protected boolean sendInput(byte[] bytes, int length) {
+        try {
+            input.write(bytes, 0, length);
+            input.flush();
+            return true;
+        } catch (IOException e) {
+            //the bot is gone
+            return false;
+        }
+    }
+
+    @Override
+    protected String readOutputLine(long timeout) throws InterruptedException {
+        if (!polled) {
+            return super.readOutputLine(timeout);
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        long delay = MIN_POLL_DELAY;
+        InputStream output = process.getInputStream();
+        try {
+            while (true) {
+                String line = pollOutputLine(output);
+                if (line != null) {
+                    return line;
+                }
+                if (!process.isAlive() && output.available() == 0) {
+                    //the bot is gone
+                    return null;
+                }
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    return null;
+                }
+                LockSupport.parkNanos(Math.min(delay, left));
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                delay = Math.min(2 * delay, MAX_POLL_DELAY);
+            }
+        } catch (IOException e) {
+            //the bot is gone
+            return null;
+        }
+    }
+
+    //reads what the bot already wrote, without blocking, up to the end of a line: null if there is no full line yet
+    private String pollOutputLine(InputStream output) throws IOException {
+        int available;
+        while ((available = output.available()) > 0) {
+            //byte per byte up to the end of the line, so that the next lines stay in the stream
+            for (int i=0;i<available;++i) {
+                int b = output.read();
+                if (b < 0) {
+                    return null;
+                }
+                if (b == '\n') {
+                    String line = new String(outputLine.toByteArray(), StandardCharsets.UTF_8);
+                    outputLine.reset();
+                    return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+                }
+                outputLine.write(b);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        process.destroyForcibly();
+    }
+}
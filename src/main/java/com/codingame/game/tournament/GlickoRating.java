@@ -0,0 +1,78 @@
+package com.codingame.game.tournament;
+
+/**
+ * Glicko rating of a bot, updated after every match (each match is its own rating period, the bots do not change over
+ * time so their deviation never grows back).
+ */
+public class GlickoRating {
+    public static final double INITIAL_RATING = 1500;
+    public static final double INITIAL_DEVIATION = 350;
+    private static final double Q = Math.log(10) / 400;
+
+    private double rating = INITIAL_RATING;
+    private double deviation = INITIAL_DEVIATION;
+    private int matchesCount;
+
+    public double getRating() {
+        return rating;
+    }
+
+    public double getDeviation() {
+        return deviation;
+    }
+
+    public int getMatchesCount() {
+        return matchesCount;
+    }
+
+    //attenuation of a result against an opponent of this deviation
+    private static double g(double deviation) {
+        return 1 / Math.sqrt(1 + 3 * Q * Q * deviation * deviation / (Math.PI * Math.PI));
+    }
+
+    //expected score against the opponent
+    public double getExpectedScore(GlickoRating opponent) {
+        return 1 / (1 + Math.pow(10, -g(opponent.deviation) * (rating - opponent.rating) / 400));
+    }
+
+    //1 / d^2 of Glicko: how much a match against the opponent tells about this rating
+    private double getInformation(GlickoRating opponent) {
+        double g = g(opponent.deviation);
+        double expectedScore = getExpectedScore(opponent);
+        return Q * Q * g * g * expectedScore * (1 - expectedScore);
+    }
+
+    //the variance of this rating after a match against the opponent, whatever the result
+    private double getVarianceAfterMatch(GlickoRating opponent) {
+        return 1 / (1 / (deviation * deviation) + getInformation(opponent));
+    }
+
+    //the decrease of the variances of both ratings that a match between them would bring
+    public static double getVarianceReduction(GlickoRating a, GlickoRating b) {
+        return a.deviation * a.deviation - a.getVarianceAfterMatch(b)
+                + b.deviation * b.deviation - b.getVarianceAfterMatch(a);
+    }
+
+    //updates both ratings after a match, scoreA being 1 if a won, 0.5 for a tie and 0 if b won
+    public static void update(GlickoRating a, GlickoRating b, double scoreA) {
+        double[] ratingA = a.getUpdate(b, scoreA);
+        double[] ratingB = b.getUpdate(a, 1 - scoreA);
+        a.set(ratingA);
+        b.set(ratingB);
+    }
+
+    //the rating and deviation after a match against the opponent
+    private double[] getUpdate(GlickoRating opponent, double score) {
+        double variance = getVarianceAfterMatch(opponent);
+        return new double[] {
+                rating + Q * variance * g(opponent.deviation) * (score - getExpectedScore(opponent)),
+                Math.sqrt(variance)
+        };
+    }
+
+    private void set(double[] update) {
+        rating = update[0];
+        deviation = update[1];
+        matchesCount++;
+    }
+}
@@ -0,0 +1,135 @@
+package com.codingame.game.tournament;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Ratings of bots updated match after match, instead of replaying a full round robin when a bot is added.
+ * Every match result is appended to a file, one line per match: "seed bot0 bot1 score0 score1" separated by tabs, the
+ * scores being those of the referee (technical debt tie-breaker included). The ratings are rebuilt from the file when
+ * the ladder is opened.
+ * The next pairing is the one whose match would reduce the most the uncertainty of the ratings.
+ */
+public class Ladder implements Closeable {
+    private final Map<String, GlickoRating> ratings = new LinkedHashMap<>();
+    private final BufferedWriter output;
+    private int matchesCount;
+
+    public Ladder(File file) throws IOException {
+        if (file.exists()) {
+            try (BufferedReader input = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = input.readLine()) != null) {
+                    String[] fields = line.split("\t");
+                    if (fields.length == 5) {
+                        update(fields[1], fields[2], Integer.parseInt(fields[3]), Integer.parseInt(fields[4]));
+                    }
+                }
+            }
+        }
+        output = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+    }
+
+    private void update(String bot0, String bot1, int score0, int score1) {
+        GlickoRating rating0 = getRating(bot0);
+        GlickoRating rating1 = getRating(bot1);
+        GlickoRating.update(rating0, rating1, score0 > score1 ? 1 : score0 == score1 ? 0.5 : 0);
+        matchesCount++;
+    }
+
+    public synchronized GlickoRating getRating(String bot) {
+        return ratings.computeIfAbsent(bot, name -> new GlickoRating());
+    }
+
+    //matches recorded so far, those of the file included
+    public synchronized int getMatchesCount() {
+        return matchesCount;
+    }
+
+    public synchronized void record(PlayedMatch match) throws IOException {
+        MatchResult result = match.getResult();
+        update(match.getBot(0).getName(), match.getBot(1).getName(), result.getScore(0), result.getScore(1));
+        output.write(match.getSeed() + "\t" + match.getBot(0).getName() + "\t" + match.getBot(1).getName()
+                + "\t" + result.getScore(0) + "\t" + result.getScore(1) + "\n");
+        output.flush();
+    }
+
+    //the most informative pairing of two bots, as indices in the list; pendingMatches[i][j] are matches not recorded yet
+    public synchronized int[] choosePairing(List<BotDescriptor> bots, int[][] pendingMatches) {
+        int[] best = null;
+        double bestGain = -1;
+        for (int i=0;i<bots.size();++i) {
+            for (int j=i+1;j<bots.size();++j) {
+                //a match in flight will bring part of the information already
+                double gain = GlickoRating.getVarianceReduction(getRating(bots.get(i).getName()), getRating(bots.get(j).getName()))
+                        / (1 + pendingMatches[i][j]);
+                if (gain > bestGain) {
+                    bestGain = gain;
+                    best = new int[] { i, j };
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Plays matchesCount matches between the bots (rounded up to an even count), as pairs of matches on a seed (one per
+     * seat), recording them as they complete. The seeds follow those of the file from firstSeed on.
+     */
+    public void run(MatchRunner runner, List<BotDescriptor> bots, long firstSeed, int matchesCount)
+            throws InterruptedException, ExecutionException, IOException {
+        matchesCount += matchesCount % 2;
+        int[][] pendingMatches = new int[bots.size()][bots.size()];
+        Map<BotDescriptor, Integer> botIds = new HashMap<>();
+        for (int i=0;i<bots.size();++i) {
+            botIds.put(bots.get(i), i);
+        }
+        long seed = firstSeed + (getMatchesCount() + 1) / 2;
+        int submittedCount = 0;
+        int inFlightCount = 0;
+        for (int recordedCount=0;recordedCount<matchesCount;++recordedCount) {
+            while (submittedCount < matchesCount && inFlightCount < Math.max(2, runner.getParallelism())) {
+                int[] pairing = choosePairing(bots, pendingMatches);
+                runner.submit(seed, new BotDescriptor[] { bots.get(pairing[0]), bots.get(pairing[1]) });
+                runner.submit(seed, new BotDescriptor[] { bots.get(pairing[1]), bots.get(pairing[0]) });
+                pendingMatches[pairing[0]][pairing[1]] += 2;
+                submittedCount += 2;
+                inFlightCount += 2;
+                seed++;
+            }
+            PlayedMatch match = runner.take();
+            inFlightCount--;
+            int bot0 = botIds.get(match.getBot(0));
+            int bot1 = botIds.get(match.getBot(1));
+            pendingMatches[Math.min(bot0, bot1)][Math.max(bot0, bot1)]--;
+            record(match);
+        }
+    }
+
+    //bot names with their rating, best rating first
+    public synchronized List<Map.Entry<String, GlickoRating>> getRanking() {
+        List<Map.Entry<String, GlickoRating>> ranking = new ArrayList<>(ratings.entrySet());
+        ranking.sort(Comparator.comparingDouble((Map.Entry<String, GlickoRating> entry) -> entry.getValue().getRating()).reversed());
+        return ranking;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        output.close();
+    }
+}
@@ -0,0 +1,93 @@
+package com.codingame.game.tournament;
+
+import com.codingame.game.rules.FrameInputEncoder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adapter for a bot reading its turn input as lines and answering with a line, outside of the match thread.
+ * The input is encoded in a reusable buffer by a {@link FrameInputEncoder}.
+ * Its outputs are queued as they come, so that a slow bot can be timed out.
+ * A bot which can be reused for another match answers {@link #READY} to a {@link #RESET} line sent instead of a turn
+ * input, within the first turn time: it then reads the first turn of the next match.
+ */
+abstract class LineAgent implements Agent {
+    public static final String RESET = "RESET";
+    public static final String READY = "READY";
+    //queued once the bot closed its output
+    private static final String END_OF_OUTPUT = new String("END_OF_OUTPUT");
+
+    private static final byte[] RESET_LINE = (RESET + "\n").getBytes(StandardCharsets.US_ASCII);
+
+    private final BlockingQueue<String> outputs = new LinkedBlockingQueue<>();
+    private final FrameInputEncoder encoder = new FrameInputEncoder();
+
+    //writes the first length bytes (whole lines) to the bot, false if it is gone: the bytes are reused after the call
+    protected abstract boolean sendInput(byte[] bytes, int length);
+
+    //queues the outputs of the bot until it closes them
+    protected void readOutputs(Reader reader) {
+        try (BufferedReader output = new BufferedReader(reader)) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                addOutputLine(line);
+            }
+        } catch (IOException e) {
+            //the bot is gone: it will time out
+        }
+        endOutputs();
+    }
+
+    protected void addOutputLine(String line) {
+        outputs.add(line);
+    }
+
+    //the bot will not write anymore
+    protected void endOutputs() {
+        outputs.add(END_OF_OUTPUT);
+    }
+
+    @Override
+    public String play(TurnInput input) throws InterruptedException {
+        int length = input.encode(encoder);
+        if (!sendInput(encoder.getBuffer(), length)) {
+            return null;
+        }
+        return readOutputLine(input.getTimeout());
+    }
+
+    @Override
+    public boolean reset(int timeout) throws InterruptedException {
+        if (!sendInput(RESET_LINE, RESET_LINE.length)) {
+            return false;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        while (true) {
+            long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            String line = left <= 0 ? null : readOutputLine(left);
+            if (line == null) {
+                return false;
+            }
+            if (READY.equals(line)) {
+                return true;
+            }
+            //skips what the bot wrote after its last turn
+        }
+    }
+
+    //next line written by the bot, null if it did not answer in time (or stopped)
+    protected String readOutputLine(long timeout) throws InterruptedException {
+        String line = outputs.poll(timeout, TimeUnit.MILLISECONDS);
+        if (line == END_OF_OUTPUT) {
+            outputs.add(END_OF_OUTPUT);
+            return null;
+        }
+        return line;
+    }
+}
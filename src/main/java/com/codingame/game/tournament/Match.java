@@ -0,0 +1,200 @@
+package com.codingame.game.tournament;
+
+import com.codingame.game.CommandParser;
+import com.codingame.game.Config;
+import com.codingame.game.GamePhase;
+import com.codingame.game.GameRuleException;
+import com.codingame.game.InvalidInputException;
+import com.codingame.game.MatchConfig;
+import com.codingame.game.TurnPlan;
+import com.codingame.game.action.ActionCode;
+import com.codingame.game.action.RandomActionFactory;
+import com.codingame.game.replay.Replay;
+import com.codingame.game.rules.GameState;
+import com.codingame.game.rules.PlayerState;
+import com.codingame.game.rules.Rules;
+import com.codingame.game.rules.RulesListener;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * One match between two bots, played without the game engine: the bots get the same inputs, time limits and
+ * disqualifications as with the referee, but there is no view and no game summary. The bots are {@link Agent}s called
+ * on the match thread, the programs being wrapped by adapters.
+ */
+public class Match {
+    private final MatchConfig config;
+    private final long seed;
+    private final int firstTurnMaxTime;
+    private final int turnMaxTime;
+    private final CommandParser commandParser = new CommandParser();
+    private final RandomActionFactory randomActionFactory = new RandomActionFactory();
+    //the record of the match, for its replay
+    private final int[] frames = new int[Config.MAX_TURNS];
+    private int framesCount;
+    private long stateHash;
+    //the action of the command being performed, and whether it was drawn at random
+    private int commandAction;
+    private boolean commandRandom;
+    private RulesListener listener = RulesListener.NONE;
+    private boolean deltaInput;
+    private boolean turnPlans;
+    private boolean forcedPhases;
+    //the commands planned by the active bot for the next phases of its turn
+    private final TurnPlan turnPlan = new TurnPlan();
+
+    public Match(MatchConfig config, long seed, int firstTurnMaxTime, int turnMaxTime) {
+        this.config = config;
+        this.seed = seed;
+        this.firstTurnMaxTime = firstTurnMaxTime;
+        this.turnMaxTime = turnMaxTime;
+    }
+
+    //follows the rules of the match, as the view and the game summary do with the referee
+    public void setListener(RulesListener listener) {
+        this.listener = listener;
+    }
+
+    //after their first turn, the line bots are sent the changes since their previous turn
+    public void setDeltaInput(boolean deltaInput) {
+        this.deltaInput = deltaInput;
+    }
+
+    //the bots may answer with the commands of the next phases of their turn too, see TurnPlan
+    public void setTurnPlans(boolean turnPlans) {
+        this.turnPlans = turnPlans;
+    }
+
+    //the phases where the bot has no choice are played without querying it
+    public void setForcedPhases(boolean forcedPhases) {
+        this.forcedPhases = forcedPhases;
+    }
+
+    //the first bot plays first
+    public MatchResult play(BotDescriptor[] bots) throws IOException, InterruptedException {
+        Agent[] agents = new Agent[bots.length];
+        try {
+            for (int i=0;i<bots.length;++i) {
+                agents[i] = bots[i].createAgent();
+            }
+            return play(agents);
+        } finally {
+            for (Agent agent : agents) {
+                if (agent != null) {
+                    agent.close();
+                }
+            }
+        }
+    }
+
+    //the agents are called on the current thread, the first one plays first
+    public MatchResult play(Agent[] agents) throws InterruptedException {
+        //a match can be played again, its record being the one of the last game
+        framesCount = 0;
+        stateHash = 0;
+        turnPlan.clear();
+        GameState state = new GameState();
+        Rules rules = new Rules(config, state, listener);
+        rules.init(seed, agents.length);
+        boolean[] hasPlayed = new boolean[agents.length];
+        boolean[] disqualified = new boolean[agents.length];
+        int[] releases = new int[agents.length];
+
+        for (int turn=0;turn<Config.MAX_TURNS && !state.isGameOver();++turn) {
+            int playerId = state.getActivePlayerId();
+            PlayerState player = state.getActivePlayer();
+            GamePhase gamePhase = state.getGamePhase();
+            commandAction = ActionCode.noAction();
+            commandRandom = false;
+            int forcedAction = forcedPhases ? rules.getForcedAction(player, gamePhase) : ActionCode.noAction();
+            if (forcedAction != ActionCode.noAction()) {
+                //no choice, the bot is not queried
+                turnPlan.followForcedAction(forcedAction, commandParser, player, gamePhase, state.getApplications(), config);
+                commandAction = forcedAction;
+                rules.performAction(player, forcedAction);
+            } else if (!(turnPlan.hasNext() && performCommand(rules, player, gamePhase, turnPlan.next()))) {
+                //the plan, if any, no longer applies: the bot is queried
+                turnPlan.clear();
+                commandAction = ActionCode.noAction();
+                commandRandom = false;
+                TurnInput input = new TurnInput(rules, player, gamePhase, hasPlayed[playerId] ? turnMaxTime : firstTurnMaxTime,
+                        deltaInput && hasPlayed[playerId]);
+                String command;
+                try {
+                    command = agents[playerId].play(input);
+                } catch (RuntimeException e) {
+                    //the agent crashed
+                    command = null;
+                }
+                hasPlayed[playerId] = true;
+                if (turnPlans && command != null) {
+                    command = turnPlan.start(command);
+                }
+                if (command == null || !performCommand(rules, player, gamePhase, command)) {
+                    //timeout, invalid command or rule violation
+                    disqualified[playerId] = true;
+                    releases[playerId] = player.getScore();
+                    //the rules see the disqualified player's score too (it prevents any further release)
+                    player.setScore(-1);
+                }
+            }
+            rules.nextPhase();
+            recordFrame(state, disqualified[playerId]);
+            if (disqualified[playerId]) {
+                break;
+            }
+            if (state.getActivePlayerId() != playerId) {
+                //a plan is for one turn
+                turnPlan.clear();
+            }
+        }
+
+        int[] technicalDebts = new int[agents.length];
+        for (int i=0;i<agents.length;++i) {
+            if (!disqualified[i]) {
+                releases[i] = state.getPlayer(i).getScore();
+            }
+            technicalDebts[i] = state.getPlayer(i).getTechnicalDebtCardsCount();
+        }
+        return MatchResult.score(releases, technicalDebts, disqualified);
+    }
+
+    private void recordFrame(GameState state, boolean disqualified) {
+        frames[framesCount++] = Replay.frame(commandAction, commandRandom, disqualified);
+        stateHash = Replay.chainStateHash(stateHash, state.getHash());
+    }
+
+    //the record of the match once played, leagueLevel being the league its configuration comes from
+    public Replay toReplay(int leagueLevel, MatchResult result) {
+        int[] scores = new int[Replay.PLAYERS_COUNT];
+        int[] releases = new int[Replay.PLAYERS_COUNT];
+        int[] technicalDebts = new int[Replay.PLAYERS_COUNT];
+        boolean[] disqualified = new boolean[Replay.PLAYERS_COUNT];
+        for (int i=0;i<Replay.PLAYERS_COUNT;++i) {
+            scores[i] = result.getScore(i);
+            releases[i] = result.getReleases(i);
+            technicalDebts[i] = result.getTechnicalDebt(i);
+            disqualified[i] = result.isDisqualified(i);
+        }
+        return new Replay(seed, leagueLevel, config, scores, releases, technicalDebts, disqualified, stateHash,
+                Arrays.copyOf(frames, framesCount));
+    }
+
+    //false if the command cannot be played
+    private boolean performCommand(Rules rules, PlayerState player, GamePhase gamePhase, String command) {
+        GameState state = rules.getState();
+        try {
+            int action = commandParser.parse(command, player, gamePhase, state.getApplications(), config);
+            if (ActionCode.getKind(action) == ActionCode.RANDOM) {
+                commandRandom = true;
+                action = randomActionFactory.createAction(gamePhase, player, state.getApplications(), config, state.getRandom());
+            }
+            commandAction = action;
+            rules.performAction(player, action);
+            return true;
+        } catch (InvalidInputException | GameRuleException | RuntimeException e) {
+            return false;
+        }
+    }
+}
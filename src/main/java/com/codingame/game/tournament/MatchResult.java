@@ -0,0 +1,63 @@
+package com.codingame.game.tournament;
+
+/**
+ * The outcome of a match, per seat: the final scores as computed by the referee (technical debt tie-breaker included),
+ * the released applications and the technical debt cards owned at the end.
+ */
+public class MatchResult {
+    private final int[] scores;
+    private final int[] releases;
+    private final int[] technicalDebts;
+    private final boolean[] disqualified;
+
+    MatchResult(int[] scores, int[] releases, int[] technicalDebts, boolean[] disqualified) {
+        this.scores = scores;
+        this.releases = releases;
+        this.technicalDebts = technicalDebts;
+        this.disqualified = disqualified;
+    }
+
+    //same scores as Referee.onEnd
+    public static MatchResult score(int[] releases, int[] technicalDebts, boolean[] disqualified) {
+        int[] scores = new int[2];
+        if (!disqualified[0] && disqualified[1]) {
+            scores[0] = 1;
+        } else if (disqualified[0] && !disqualified[1]) {
+            scores[1] = 1;
+        } else {
+            //a disqualified player scored -1
+            scores[0] = disqualified[0] ? -1 : releases[0];
+            scores[1] = disqualified[1] ? -1 : releases[1];
+            if (scores[0] == scores[1]) {
+                //tie breaker
+                scores[0] = -technicalDebts[0];
+                scores[1] = -technicalDebts[1];
+            }
+        }
+        return new MatchResult(scores, releases, technicalDebts, disqualified);
+    }
+
+    public int getScore(int seat) {
+        return scores[seat];
+    }
+
+    //seat of the winner, -1 for a tie
+    public int getWinner() {
+        if (scores[0] == scores[1]) {
+            return -1;
+        }
+        return scores[0] > scores[1] ? 0 : 1;
+    }
+
+    public int getReleases(int seat) {
+        return releases[seat];
+    }
+
+    public int getTechnicalDebt(int seat) {
+        return technicalDebts[seat];
+    }
+
+    public boolean isDisqualified(int seat) {
+        return disqualified[seat];
+    }
+}
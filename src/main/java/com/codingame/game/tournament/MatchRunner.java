@@ -0,0 +1,220 @@
+package com.codingame.game.tournament;
+
+import com.codingame.game.MatchConfig;
+import com.codingame.game.replay.ReplayWriter;
+import com.codingame.game.stats.GameStats;
+import com.codingame.game.stats.GameStatsCollector;
+
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plays matches in parallel and hands them back as they complete.
+ * The matches run on a fixed pool of threads, or each on a virtual thread (with a bound on the matches in flight) so
+ * that matches between external programs, which mostly wait for I/O, do not need an OS thread each.
+ * The agents are leased from one {@link AgentPool} per bot, so that reusable bots stay warm from one match to the next.
+ */
+public class MatchRunner implements AutoCloseable {
+    private final MatchConfig config;
+    private final int threadsCount;
+    private final int firstTurnMaxTime;
+    private final int turnMaxTime;
+    //0 to run the matches on a fixed pool of threads
+    private int maxMatchesInFlight;
+    private ExecutorService executor;
+    private CompletionService<PlayedMatch> matches;
+    private Semaphore inFlightPermits;
+    private final Map<BotDescriptor, AgentPool> agentPools = new IdentityHashMap<>();
+    private final AtomicInteger queuedCount = new AtomicInteger();
+    private final AtomicInteger inFlightCount = new AtomicInteger();
+    private final AtomicInteger completedCount = new AtomicInteger();
+    private final long startTime = System.nanoTime();
+    private ReplayWriter replayWriter;
+    private int leagueLevel;
+    private GameStats stats;
+    private boolean deltaInput;
+    private boolean turnPlans;
+    private boolean forcedPhases;
+
+    public MatchRunner(MatchConfig config, int threadsCount, int firstTurnMaxTime, int turnMaxTime) {
+        this.config = config;
+        this.threadsCount = threadsCount;
+        this.firstTurnMaxTime = firstTurnMaxTime;
+        this.turnMaxTime = turnMaxTime;
+    }
+
+    //runs each match on a virtual thread, at most maxMatchesInFlight at a time (threadsCount is then ignored)
+    public void useVirtualThreads(int maxMatchesInFlight) {
+        if (!VirtualThreads.isAvailable()) {
+            throw new IllegalStateException("Virtual threads need Java 21");
+        }
+        if (executor != null) {
+            throw new IllegalStateException("Matches already submitted");
+        }
+        this.maxMatchesInFlight = maxMatchesInFlight;
+    }
+
+    //writes the replay of every match, disqualifications included, the configuration coming from the league leagueLevel
+    public void recordReplays(ReplayWriter replayWriter, int leagueLevel) {
+        this.replayWriter = replayWriter;
+        this.leagueLevel = leagueLevel;
+    }
+
+    //sends the line bots the changes since their previous turn, see Match.setDeltaInput
+    public void useDeltaInput() {
+        deltaInput = true;
+    }
+
+    //lets the bots answer with the commands of the next phases of their turn too, see Match.setTurnPlans
+    public void useTurnPlans() {
+        turnPlans = true;
+    }
+
+    //plays the phases where the bot has no choice without querying it, see Match.setForcedPhases
+    public void resolveForcedPhases() {
+        forcedPhases = true;
+    }
+
+    //adds every match played to the end to stats
+    public void collectStats(GameStats stats) {
+        this.stats = stats;
+    }
+
+    //the matches played by a fixed pool, or played at once by virtual threads
+    public int getParallelism() {
+        return maxMatchesInFlight > 0 ? maxMatchesInFlight : threadsCount;
+    }
+
+    public void submit(long seed, BotDescriptor[] seats) {
+        if (executor == null) {
+            executor = maxMatchesInFlight > 0
+                    ? VirtualThreads.newExecutor("match-")
+                    : Executors.newFixedThreadPool(threadsCount);
+            matches = new ExecutorCompletionService<>(executor);
+            //with virtual threads every match is started at once, and waits here for its turn
+            inFlightPermits = maxMatchesInFlight > 0 ? new Semaphore(maxMatchesInFlight) : null;
+        }
+        for (BotDescriptor bot : seats) {
+            synchronized (agentPools) {
+                agentPools.computeIfAbsent(bot, AgentPool::new);
+            }
+        }
+        queuedCount.incrementAndGet();
+        matches.submit(() -> {
+            if (inFlightPermits != null) {
+                inFlightPermits.acquire();
+            }
+            queuedCount.decrementAndGet();
+            inFlightCount.incrementAndGet();
+            try {
+                return new PlayedMatch(seed, seats, play(seed, seats));
+            } finally {
+                inFlightCount.decrementAndGet();
+                completedCount.incrementAndGet();
+                if (inFlightPermits != null) {
+                    inFlightPermits.release();
+                }
+            }
+        });
+    }
+
+    //next completed match, waiting for it if needed
+    public PlayedMatch take() throws InterruptedException, ExecutionException {
+        return matches.take().get();
+    }
+
+    //plays a match with agents leased from the pools, those which played to the end going back to their pool
+    private MatchResult play(long seed, BotDescriptor[] seats) throws IOException, InterruptedException {
+        Agent[] agents = new Agent[seats.length];
+        MatchResult result = null;
+        try {
+            for (int i=0;i<seats.length;++i) {
+                agents[i] = getAgentPool(seats[i]).lease();
+            }
+            Match match = new Match(config, seed, firstTurnMaxTime, turnMaxTime);
+            match.setDeltaInput(deltaInput);
+            match.setTurnPlans(turnPlans);
+            match.setForcedPhases(forcedPhases);
+            GameStatsCollector statsCollector = stats == null ? null : new GameStatsCollector(stats);
+            if (statsCollector != null) {
+                match.setListener(statsCollector);
+            }
+            result = match.play(agents);
+            if (replayWriter != null) {
+                replayWriter.write(match.toReplay(leagueLevel, result));
+            }
+            if (statsCollector != null) {
+                if (result.isDisqualified(0) || result.isDisqualified(1)) {
+                    //cut short by a timeout or an invalid command
+                    statsCollector.discardGame();
+                } else {
+                    statsCollector.endGame(new int[] { result.getTechnicalDebt(0), result.getTechnicalDebt(1) });
+                }
+            }
+            return result;
+        } finally {
+            for (int i=0;i<seats.length;++i) {
+                if (agents[i] != null) {
+                    getAgentPool(seats[i]).release(agents[i], result != null && !result.isDisqualified(i), firstTurnMaxTime);
+                }
+            }
+        }
+    }
+
+    private AgentPool getAgentPool(BotDescriptor bot) {
+        synchronized (agentPools) {
+            return agentPools.get(bot);
+        }
+    }
+
+    //matches waiting to start
+    public int getQueuedCount() {
+        return queuedCount.get();
+    }
+
+    public int getInFlightCount() {
+        return inFlightCount.get();
+    }
+
+    public int getCompletedCount() {
+        return completedCount.get();
+    }
+
+    //completed matches per second since the runner was created
+    public double getThroughput() {
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        return seconds <= 0 ? 0 : completedCount.get() / seconds;
+    }
+
+    //agents started so far, fewer than two per match when the bots are reusable
+    public int getAgentsCount() {
+        int agentsCount = 0;
+        synchronized (agentPools) {
+            for (AgentPool agentPool : agentPools.values()) {
+                agentsCount += agentPool.getCreatedCount();
+            }
+        }
+        return agentsCount;
+    }
+
+    //stops the matches still running and the idle agents
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        synchronized (agentPools) {
+            for (AgentPool agentPool : agentPools.values()) {
+                agentPool.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.codingame.game.tournament;
+
+/**
+ * Results of the matches between two bots, from the point of view of the first one whatever the seats.
+ */
+public class PairingStats {
+    private final BotDescriptor bot;
+    private final BotDescriptor opponent;
+    private int matchesCount;
+    private int wins;
+    private int losses;
+    private int ties;
+    //totals per bot: 0 = bot, 1 = opponent
+    private final long[] releases = new long[2];
+    private final long[] technicalDebts = new long[2];
+    private final int[] disqualifications = new int[2];
+
+    public PairingStats(BotDescriptor bot, BotDescriptor opponent) {
+        this.bot = bot;
+        this.opponent = opponent;
+    }
+
+    //botSeat is the seat the first bot played in
+    public void add(MatchResult result, int botSeat) {
+        matchesCount++;
+        int winner = result.getWinner();
+        if (winner < 0) {
+            ties++;
+        } else if (winner == botSeat) {
+            wins++;
+        } else {
+            losses++;
+        }
+        for (int i=0;i<2;++i) {
+            int seat = i == 0 ? botSeat : 1 - botSeat;
+            releases[i] += result.getReleases(seat);
+            technicalDebts[i] += result.getTechnicalDebt(seat);
+            if (result.isDisqualified(seat)) {
+                disqualifications[i]++;
+            }
+        }
+    }
+
+    public BotDescriptor getBot() {
+        return bot;
+    }
+
+    public BotDescriptor getOpponent() {
+        return opponent;
+    }
+
+    public int getMatchesCount() {
+        return matchesCount;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int getLosses() {
+        return losses;
+    }
+
+    public int getTies() {
+        return ties;
+    }
+
+    //0 = bot, 1 = opponent
+    public double getAverageReleases(int botId) {
+        return matchesCount == 0 ? 0 : (double) releases[botId] / matchesCount;
+    }
+
+    public double getAverageTechnicalDebt(int botId) {
+        return matchesCount == 0 ? 0 : (double) technicalDebts[botId] / matchesCount;
+    }
+
+    public int getDisqualifications(int botId) {
+        return disqualifications[botId];
+    }
+}
@@ -0,0 +1,28 @@
+package com.codingame.game.tournament;
+
+/**
+ * A match played by a {@link MatchRunner}: its seed, the bots in seat order and the result.
+ */
+public class PlayedMatch {
+    private final long seed;
+    private final BotDescriptor[] seats;
+    private final MatchResult result;
+
+    PlayedMatch(long seed, BotDescriptor[] seats, MatchResult result) {
+        this.seed = seed;
+        this.seats = seats;
+        this.result = result;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public BotDescriptor getBot(int seat) {
+        return seats[seat];
+    }
+
+    public MatchResult getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,169 @@
+package com.codingame.game.tournament;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Sequential probability ratio test of a bot against a baseline: H0 is "the bot is elo0 stronger", H1 "it is elo1
+ * stronger", alpha and beta being the false positive and false negative rates. The matches stop as soon as one of them
+ * is accepted.
+ * The bots play each seed from both seats, so the samples are the pair scores (0, 0.5, 1, 1.5 or 2 wins): the log
+ * likelihood ratio is the normal approximation of the generalized SPRT on their mean and variance (pentanomial model),
+ * with a small prior so that a few lopsided pairs are not enough to conclude.
+ */
+public class Sprt {
+    public enum Decision { H0, H1 }
+
+    //one pseudo pair spread over the five pair scores
+    private static final double PRIOR_COUNT = 0.2;
+
+    private final double score0;
+    private final double score1;
+    private final double lowerBound;
+    private final double upperBound;
+    //number of pairs of each pair score, in half points: pairsCounts[k] pairs scored k/2
+    private final int[] pairsCounts = new int[5];
+    private int wins;
+    private int ties;
+    private int losses;
+
+    public Sprt(double elo0, double elo1, double alpha, double beta) {
+        this.score0 = getExpectedScore(elo0);
+        this.score1 = getExpectedScore(elo1);
+        this.lowerBound = Math.log(beta / (1 - alpha));
+        this.upperBound = Math.log((1 - beta) / alpha);
+    }
+
+    private static double getExpectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    //the scores of the bot in both matches of a seed, 1 for a win, 0.5 for a tie and 0 for a loss
+    public synchronized void addPair(double firstScore, double secondScore) {
+        for (double score : new double[] { firstScore, secondScore }) {
+            if (score == 1) {
+                wins++;
+            } else if (score == 0) {
+                losses++;
+            } else {
+                ties++;
+            }
+        }
+        pairsCounts[(int) Math.round(2 * (firstScore + secondScore))]++;
+    }
+
+    public synchronized int getPairsCount() {
+        int pairsCount = 0;
+        for (int count : pairsCounts) {
+            pairsCount += count;
+        }
+        return pairsCount;
+    }
+
+    //mean score per match of the bot
+    public synchronized double getScore() {
+        int pairsCount = getPairsCount();
+        if (pairsCount == 0) {
+            return 0.5;
+        }
+        double total = 0;
+        for (int k=0;k<pairsCounts.length;++k) {
+            total += pairsCounts[k] * k / 4.0;
+        }
+        return total / pairsCount;
+    }
+
+    public synchronized double getLogLikelihoodRatio() {
+        int pairsCount = getPairsCount();
+        if (pairsCount == 0) {
+            return 0;
+        }
+        //the prior keeps the variance of the first pairs (or of a run of identical pairs) from being close to 0
+        double total = 0;
+        double regularizedCount = 0;
+        for (int k=0;k<pairsCounts.length;++k) {
+            total += (pairsCounts[k] + PRIOR_COUNT) * k / 4.0;
+            regularizedCount += pairsCounts[k] + PRIOR_COUNT;
+        }
+        double score = total / regularizedCount;
+        double variance = 0;
+        for (int k=0;k<pairsCounts.length;++k) {
+            double deviation = k / 4.0 - score;
+            variance += (pairsCounts[k] + PRIOR_COUNT) * deviation * deviation;
+        }
+        variance /= regularizedCount;
+        return pairsCount * (score1 - score0) * (2 * score - score0 - score1) / (2 * variance);
+    }
+
+    public double getLowerBound() {
+        return lowerBound;
+    }
+
+    public double getUpperBound() {
+        return upperBound;
+    }
+
+    //the accepted hypothesis, null while the test goes on
+    public synchronized Decision getDecision() {
+        double logLikelihoodRatio = getLogLikelihoodRatio();
+        if (logLikelihoodRatio >= upperBound) {
+            return Decision.H1;
+        }
+        if (logLikelihoodRatio <= lowerBound) {
+            return Decision.H0;
+        }
+        return null;
+    }
+
+    //elo difference of the bot measured so far
+    public synchronized double getElo() {
+        double score = Math.min(Math.max(getScore(), 1e-6), 1 - 1e-6);
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    public synchronized int getWins() {
+        return wins;
+    }
+
+    public synchronized int getTies() {
+        return ties;
+    }
+
+    public synchronized int getLosses() {
+        return losses;
+    }
+
+    /**
+     * Plays pairs of matches on a seed between the bot and the baseline until a hypothesis is accepted or maxMatchesCount
+     * matches are played: the decision, null if none was reached.
+     */
+    public Decision run(MatchRunner runner, BotDescriptor bot, BotDescriptor baseline, long firstSeed, int maxMatchesCount)
+            throws InterruptedException, ExecutionException {
+        int maxPairsCount = (maxMatchesCount + 1) / 2;
+        //score of the first completed match of each pair in flight, by seed
+        Map<Long, Double> halfPairs = new HashMap<>();
+        long seed = firstSeed;
+        int inFlightCount = 0;
+        while (getDecision() == null && getPairsCount() < maxPairsCount) {
+            while (seed - firstSeed < maxPairsCount && inFlightCount < Math.max(2, runner.getParallelism())) {
+                runner.submit(seed, new BotDescriptor[] { bot, baseline });
+                runner.submit(seed, new BotDescriptor[] { baseline, bot });
+                inFlightCount += 2;
+                seed++;
+            }
+            PlayedMatch match = runner.take();
+            inFlightCount--;
+            int botSeat = match.getBot(0) == bot ? 0 : 1;
+            int winner = match.getResult().getWinner();
+            double score = winner < 0 ? 0.5 : winner == botSeat ? 1 : 0;
+            Double firstScore = halfPairs.remove(match.getSeed());
+            if (firstScore == null) {
+                halfPairs.put(match.getSeed(), score);
+            } else {
+                addPair(firstScore, score);
+            }
+        }
+        return getDecision();
+    }
+}
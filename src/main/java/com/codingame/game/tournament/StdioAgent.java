@@ -0,0 +1,146 @@
+package com.codingame.game.tournament;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Adapter running a bot written as a program (a main method reading System.in and answering on System.out) in the
+ * same JVM, on a daemon thread of its own: its standard streams are redirected to memory, its stderr is discarded.
+ * The bot must not call System.exit, and its static fields are shared by the matches running at the same time.
+ */
+class StdioAgent extends LineAgent {
+    private static final Charset CHARSET = Charset.defaultCharset();
+    private static final OutputStream NULL_OUTPUT = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private final QueueInputStream input = new QueueInputStream();
+    private final Thread thread;
+
+    StdioAgent(Method main) {
+        thread = new Thread(() -> run(main), "bot-" + main.getDeclaringClass().getSimpleName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run(Method main) {
+        ThreadStreams.redirect(input, new LineOutputStream(), NULL_OUTPUT);
+        try {
+            main.invoke(null, (Object) new String[0]);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            //the bot crashed, or stopped on the end of its input
+        } finally {
+            endOutputs();
+        }
+    }
+
+    @Override
+    protected boolean sendInput(byte[] bytes, int length) {
+        input.add(Arrays.copyOf(bytes, length));
+        return true;
+    }
+
+    @Override
+    public void close() {
+        input.close();
+        thread.interrupt();
+    }
+
+    //the bytes sent to the bot, an empty chunk marking the end of its input
+    private static class QueueInputStream extends InputStream {
+        private static final byte[] END_OF_INPUT = new byte[0];
+
+        private final BlockingQueue<byte[]> chunks = new LinkedBlockingQueue<>();
+        private byte[] chunk = new byte[0];
+        private int position;
+
+        void add(byte[] bytes) {
+            chunks.add(bytes);
+        }
+
+        @Override
+        public void close() {
+            chunks.add(END_OF_INPUT);
+        }
+
+        //false at the end of the input
+        private boolean fill() {
+            if (chunk == END_OF_INPUT) {
+                return false;
+            }
+            while (position == chunk.length) {
+                try {
+                    chunk = chunks.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    chunk = END_OF_INPUT;
+                }
+                position = 0;
+                if (chunk == END_OF_INPUT) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int read() {
+            return fill() ? chunk[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int count = Math.min(len, chunk.length - position);
+            System.arraycopy(chunk, position, b, off, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return chunk == END_OF_INPUT ? 0 : chunk.length - position;
+        }
+    }
+
+    //splits the bytes written by the bot into output lines
+    private class LineOutputStream extends OutputStream {
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                String output = new String(line.toByteArray(), CHARSET);
+                addOutputLine(output.endsWith("\r") ? output.substring(0, output.length() - 1) : output);
+                line.reset();
+            } else {
+                line.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i=off;i<off+len;++i) {
+                write(b[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.codingame.game.tournament;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Replaces System.in, System.out and System.err by streams choosing their target from the calling thread, so that
+ * several bots written against the standard streams can run in one JVM. A thread which was not redirected (nor started
+ * by a redirected thread) keeps the original streams.
+ */
+final class ThreadStreams {
+    private static final InheritableThreadLocal<InputStream> IN = new InheritableThreadLocal<>();
+    private static final InheritableThreadLocal<OutputStream> OUT = new InheritableThreadLocal<>();
+    private static final InheritableThreadLocal<OutputStream> ERR = new InheritableThreadLocal<>();
+    private static boolean installed;
+
+    private ThreadStreams() {
+    }
+
+    static synchronized void install() {
+        if (installed) {
+            return;
+        }
+        System.setIn(new RoutedInputStream(System.in));
+        System.setOut(new PrintStream(new RoutedOutputStream(OUT, System.out), true));
+        System.setErr(new PrintStream(new RoutedOutputStream(ERR, System.err), true));
+        installed = true;
+    }
+
+    //standard streams of the current thread and of the threads it starts from now on
+    static void redirect(InputStream in, OutputStream out, OutputStream err) {
+        install();
+        IN.set(in);
+        OUT.set(out);
+        ERR.set(err);
+    }
+
+    private static class RoutedInputStream extends InputStream {
+        private final InputStream original;
+
+        RoutedInputStream(InputStream original) {
+            this.original = original;
+        }
+
+        private InputStream target() {
+            InputStream in = IN.get();
+            return in == null ? original : in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return target().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return target().read(b, off, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return target().available();
+        }
+    }
+
+    private static class RoutedOutputStream extends OutputStream {
+        private final ThreadLocal<OutputStream> redirection;
+        private final OutputStream original;
+
+        RoutedOutputStream(ThreadLocal<OutputStream> redirection, OutputStream original) {
+            this.redirection = redirection;
+            this.original = original;
+        }
+
+        private OutputStream target() {
+            OutputStream out = redirection.get();
+            return out == null ? original : out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target().flush();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.codingame.game.tournament;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Plays every pair of bots on a range of seeds, each seed twice so that both bots play first, the matches running in
+ * parallel on a {@link MatchRunner}. A seed is the same for every pairing, so the bots are compared on the same games.
+ */
+public class Tournament {
+    private final MatchRunner runner;
+    private final List<BotDescriptor> bots;
+    private final long firstSeed;
+    private final int seedsCount;
+
+    public Tournament(MatchRunner runner, List<BotDescriptor> bots, long firstSeed, int seedsCount) {
+        this.runner = runner;
+        this.bots = bots;
+        this.firstSeed = firstSeed;
+        this.seedsCount = seedsCount;
+    }
+
+    public int getMatchesCount() {
+        return bots.size() * (bots.size() - 1) * seedsCount;
+    }
+
+    //one entry per pair of bots, in the order of the bots
+    public List<PairingStats> run() throws InterruptedException, ExecutionException {
+        List<PairingStats> pairings = new ArrayList<>();
+        //the pairing of two bots, by first bot then opponent
+        Map<BotDescriptor, Map<BotDescriptor, PairingStats>> pairingsByBots = new IdentityHashMap<>();
+        for (int i=0;i<bots.size();++i) {
+            for (int j=i+1;j<bots.size();++j) {
+                PairingStats pairing = new PairingStats(bots.get(i), bots.get(j));
+                pairings.add(pairing);
+                pairingsByBots.computeIfAbsent(bots.get(i), bot -> new IdentityHashMap<>()).put(bots.get(j), pairing);
+            }
+        }
+
+        for (int seedId=0;seedId<seedsCount;++seedId) {
+            long seed = firstSeed + seedId;
+            for (PairingStats pairing : pairings) {
+                runner.submit(seed, new BotDescriptor[] { pairing.getBot(), pairing.getOpponent() });
+                runner.submit(seed, new BotDescriptor[] { pairing.getOpponent(), pairing.getBot() });
+            }
+        }
+        for (int i=0;i<getMatchesCount();++i) {
+            PlayedMatch match = runner.take();
+            Map<BotDescriptor, PairingStats> firstBotPairings = pairingsByBots.get(match.getBot(0));
+            if (firstBotPairings != null && firstBotPairings.containsKey(match.getBot(1))) {
+                firstBotPairings.get(match.getBot(1)).add(match.getResult(), 0);
+            } else {
+                pairingsByBots.get(match.getBot(1)).get(match.getBot(0)).add(match.getResult(), 1);
+            }
+        }
+        return pairings;
+    }
+}
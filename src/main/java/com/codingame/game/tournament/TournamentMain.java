@@ -0,0 +1,229 @@
+package com.codingame.game.tournament;
+
+import com.codingame.game.Config;
+import com.codingame.game.LeagueRules;
+import com.codingame.game.MatchConfig;
+import com.codingame.game.replay.ReplayWriter;
+import com.codingame.game.stats.GameStats;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command line tournament between bots, without the game engine:
+ * <pre>TournamentMain [--seeds N] [--first-seed S] [--threads T] [--league L] [--first-turn-time MS] [--turn-time MS]
+ *     [--virtual-threads] [--max-in-flight M] [--report S] [--ladder FILE --matches N]
+ *     [--sprt ELO0 ELO1 [--alpha A] [--beta B] --matches N] [--replays FILE] [--stats] [--delta-input] [--turn-plans] [--forced-phases] bot1 bot2 [bot3...]</pre>
+ * A bot is a Java class on the classpath, implementing {@link Agent} or with a main method (BossWood1), run in this JVM,
+ * or "jvm:" and such a class to run it in a new JVM, or a program ("python3 bot.py"), optionally named (boss=BossWood1).
+ * A bot supporting the reset protocol of {@link LineAgent} is reused from one match to the next with "reuse:"
+ * (boss=reuse:jvm:BossWood1).
+ * With --virtual-threads (Java 21), each match runs on a virtual thread, T being the number of carrier threads and M the
+ * number of matches in flight. The progress is printed on stderr every S seconds (0 for never).
+ * With --ladder, N matches are played on the most informative pairings instead of a round robin, and added to the
+ * ratings of the {@link Ladder} kept in FILE.
+ * With --sprt, bot1 plays bot2 until the {@link Sprt} accepts that bot1 is ELO0 (H0) or ELO1 (H1) stronger, with false
+ * positive and negative rates A and B (0.05 by default), or N matches are played.
+ * With --replays, the {@link com.codingame.game.replay.Replay} of every match is appended to FILE.
+ * With --stats, the {@link GameStats} of all the matches are printed at the end.
+ * With --delta-input, the bots read the delta input of {@link com.codingame.game.rules.FrameInputEncoder} after their
+ * first turn (the agents of the {@link Agent} interface are not concerned).
+ * With --turn-plans, the bots may answer with the commands of the next phases of their turn too, see
+ * {@link com.codingame.game.TurnPlan}.
+ * With --forced-phases, the phases where a bot has a single possible action (a single type of card to give or throw,
+ * or WAIT when nothing can be played or released) are played without querying it.
+ */
+public class TournamentMain {
+    public static void main(String[] args) throws Exception {
+        int seedsCount = 100;
+        long firstSeed = 0;
+        int threadsCount = Runtime.getRuntime().availableProcessors();
+        int league = 3;
+        int firstTurnMaxTime = Config.FIRST_TURN_MAX_TIME;
+        int turnMaxTime = Config.TURN_MAX_TIME;
+        boolean virtualThreads = false;
+        int maxMatchesInFlight = 1000;
+        int reportPeriod = 10;
+        File ladderFile = null;
+        int matchesCount = 1000;
+        double[] sprtElos = null;
+        double alpha = 0.05;
+        double beta = 0.05;
+        File replaysFile = null;
+        boolean printStats = false;
+        boolean deltaInput = false;
+        boolean turnPlans = false;
+        boolean forcedPhases = false;
+        List<BotDescriptor> bots = new ArrayList<>();
+        for (int i=0;i<args.length;++i) {
+            switch (args[i]) {
+                case "--seeds":
+                    seedsCount = Integer.parseInt(args[++i]);
+                    break;
+                case "--first-seed":
+                    firstSeed = Long.parseLong(args[++i]);
+                    break;
+                case "--threads":
+                    threadsCount = Integer.parseInt(args[++i]);
+                    break;
+                case "--league":
+                    league = Integer.parseInt(args[++i]);
+                    break;
+                case "--first-turn-time":
+                    firstTurnMaxTime = Integer.parseInt(args[++i]);
+                    break;
+                case "--turn-time":
+                    turnMaxTime = Integer.parseInt(args[++i]);
+                    break;
+                case "--virtual-threads":
+                    virtualThreads = true;
+                    break;
+                case "--max-in-flight":
+                    maxMatchesInFlight = Integer.parseInt(args[++i]);
+                    break;
+                case "--report":
+                    reportPeriod = Integer.parseInt(args[++i]);
+                    break;
+                case "--ladder":
+                    ladderFile = new File(args[++i]);
+                    break;
+                case "--matches":
+                    matchesCount = Integer.parseInt(args[++i]);
+                    break;
+                case "--sprt":
+                    sprtElos = new double[] { Double.parseDouble(args[++i]), Double.parseDouble(args[++i]) };
+                    break;
+                case "--alpha":
+                    alpha = Double.parseDouble(args[++i]);
+                    break;
+                case "--beta":
+                    beta = Double.parseDouble(args[++i]);
+                    break;
+                case "--replays":
+                    replaysFile = new File(args[++i]);
+                    break;
+                case "--stats":
+                    printStats = true;
+                    break;
+                case "--delta-input":
+                    deltaInput = true;
+                    break;
+                case "--turn-plans":
+                    turnPlans = true;
+                    break;
+                case "--forced-phases":
+                    forcedPhases = true;
+                    break;
+                default:
+                    bots.add(BotDescriptor.parse(args[i]));
+            }
+        }
+        if (bots.size() < 2 || sprtElos != null && bots.size() != 2) {
+            System.err.println("Usage: TournamentMain [--seeds N] [--first-seed S] [--threads T] [--league L] [--first-turn-time MS] [--turn-time MS] [--virtual-threads] [--max-in-flight M] [--report S] [--ladder FILE --matches N] [--sprt ELO0 ELO1 [--alpha A] [--beta B] --matches N] [--replays FILE] [--stats] [--delta-input] [--turn-plans] [--forced-phases] bot1 bot2 [bot3...]");
+            System.exit(1);
+        }
+
+        MatchRunner runner = new MatchRunner(MatchConfig.fromLeague(LeagueRules.fromIndex(league)), threadsCount,
+                firstTurnMaxTime, turnMaxTime);
+        if (virtualThreads) {
+            if (!VirtualThreads.isAvailable()) {
+                System.err.println("--virtual-threads needs Java 21");
+                System.exit(1);
+            }
+            VirtualThreads.setCarriersCount(threadsCount);
+            runner.useVirtualThreads(maxMatchesInFlight);
+        }
+        ReplayWriter replayWriter = replaysFile == null ? null : new ReplayWriter(replaysFile);
+        if (replayWriter != null) {
+            runner.recordReplays(replayWriter, league);
+        }
+        if (deltaInput) {
+            runner.useDeltaInput();
+        }
+        if (turnPlans) {
+            runner.useTurnPlans();
+        }
+        if (forcedPhases) {
+            runner.resolveForcedPhases();
+        }
+        GameStats stats = new GameStats();
+        if (printStats) {
+            runner.collectStats(stats);
+        }
+        Sprt sprt = sprtElos == null ? null : new Sprt(sprtElos[0], sprtElos[1], alpha, beta);
+        int totalCount = ladderFile != null || sprt != null ? matchesCount : new Tournament(runner, bots, firstSeed, seedsCount).getMatchesCount();
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tournament-report");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (reportPeriod > 0) {
+            reporter.scheduleAtFixedRate(() -> System.err.println(String.format("%d/%d matches done, %d in flight, %d queued, %.1f matches/s%s",
+                    runner.getCompletedCount(), totalCount, runner.getInFlightCount(),
+                    runner.getQueuedCount(), runner.getThroughput(), sprt == null ? "" : ", " + getProgress(sprt))),
+                    reportPeriod, reportPeriod, TimeUnit.SECONDS);
+        }
+        long start = System.nanoTime();
+        try {
+            if (sprt != null) {
+                Sprt.Decision decision = sprt.run(runner, bots.get(0), bots.get(1), firstSeed, matchesCount);
+                System.out.println(String.format("%s vs %s: %s", bots.get(0), bots.get(1), getProgress(sprt)));
+                System.out.println(decision == null ? "no decision"
+                        : String.format("%s accepted: %s is %.0f elo stronger", decision, bots.get(0),
+                                decision == Sprt.Decision.H0 ? sprtElos[0] : sprtElos[1]));
+            } else if (ladderFile != null) {
+                try (Ladder ladder = new Ladder(ladderFile)) {
+                    ladder.run(runner, bots, firstSeed, matchesCount);
+                    printRanking(ladder);
+                }
+            } else {
+                printPairings(new Tournament(runner, bots, firstSeed, seedsCount).run());
+            }
+        } finally {
+            reporter.shutdownNow();
+            runner.close();
+            if (replayWriter != null) {
+                replayWriter.close();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format("%d matches in %.1fs on %d %s (%.1f matches/s), %d agents started",
+                runner.getCompletedCount(), seconds, threadsCount, virtualThreads ? "carrier threads" : "threads",
+                runner.getCompletedCount() / seconds, runner.getAgentsCount()));
+        if (printStats) {
+            stats.print(System.out);
+        }
+    }
+
+    private static String getProgress(Sprt sprt) {
+        return String.format("%d wins %d ties %d losses, elo %.1f, LLR %.2f [%.2f, %.2f]",
+                sprt.getWins(), sprt.getTies(), sprt.getLosses(), sprt.getElo(),
+                sprt.getLogLikelihoodRatio(), sprt.getLowerBound(), sprt.getUpperBound());
+    }
+
+    private static void printPairings(List<PairingStats> pairings) {
+        System.out.println(String.format("%-40s %7s %6s %6s %6s %15s %15s %7s", "pairing", "matches", "wins", "losses", "ties", "releases", "technical debt", "DQ"));
+        for (PairingStats pairing : pairings) {
+            System.out.println(String.format("%-40s %7d %6d %6d %6d %7.2f/%-7.2f %7.2f/%-7.2f %3d/%-3d",
+                    pairing.getBot() + " vs " + pairing.getOpponent(),
+                    pairing.getMatchesCount(), pairing.getWins(), pairing.getLosses(), pairing.getTies(),
+                    pairing.getAverageReleases(0), pairing.getAverageReleases(1),
+                    pairing.getAverageTechnicalDebt(0), pairing.getAverageTechnicalDebt(1),
+                    pairing.getDisqualifications(0), pairing.getDisqualifications(1)));
+        }
+    }
+
+    private static void printRanking(Ladder ladder) {
+        System.out.println(String.format("%-40s %7s %9s %7s", "bot", "rating", "deviation", "matches"));
+        for (Map.Entry<String, GlickoRating> entry : ladder.getRanking()) {
+            GlickoRating rating = entry.getValue();
+            System.out.println(String.format("%-40s %7.0f %9.0f %7d",
+                    entry.getKey(), rating.getRating(), rating.getDeviation(), rating.getMatchesCount()));
+        }
+    }
+}
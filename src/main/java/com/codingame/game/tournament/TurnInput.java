@@ -0,0 +1,77 @@
+package com.codingame.game.tournament;
+
+import com.codingame.game.GamePhase;
+import com.codingame.game.rules.FrameInputEncoder;
+import com.codingame.game.rules.PlayerState;
+import com.codingame.game.rules.Rules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The input of a turn given to an {@link Agent}: the phase and possible actions as {@link com.codingame.game.action.ActionCode}s,
+ * or the lines a bot would read on stdin. Both are computed on first use and only valid during the turn.
+ */
+public class TurnInput {
+    private final Rules rules;
+    private final PlayerState player;
+    private final GamePhase gamePhase;
+    private final int timeout;
+    private final boolean delta;
+    private List<String> lines;
+    private int[] possibleActions;
+
+    TurnInput(Rules rules, PlayerState player, GamePhase gamePhase, int timeout, boolean delta) {
+        this.rules = rules;
+        this.player = player;
+        this.gamePhase = gamePhase;
+        this.timeout = timeout;
+        this.delta = delta;
+    }
+
+    public int getPlayerId() {
+        return player.getIndex();
+    }
+
+    public GamePhase getGamePhase() {
+        return gamePhase;
+    }
+
+    //time to answer, in ms
+    public int getTimeout() {
+        return timeout;
+    }
+
+    //the legal actions as ActionCodes, RANDOM excluded
+    public int[] getPossibleActions() {
+        if (possibleActions == null) {
+            int[] buffer = new int[Rules.MAX_POSSIBLE_ACTIONS];
+            possibleActions = Arrays.copyOf(buffer, rules.getPossibleActions(player, gamePhase, buffer));
+        }
+        return possibleActions;
+    }
+
+    //true if the bot is sent the changes since its previous turn (see FrameInputEncoder), not its first turn
+    public boolean isDelta() {
+        return delta;
+    }
+
+    //the lines of getLines each ending with '\n', or their delta, written by the encoder of the player: returns their length
+    public int encode(FrameInputEncoder encoder) {
+        return delta ? encoder.encodeDelta(rules, player, gamePhase) : encoder.encode(rules, player, gamePhase);
+    }
+
+    //the game phase then the whole frame info, as sent to a bot by the referee
+    public List<String> getLines() {
+        if (lines == null) {
+            List<String> frame = rules.getCurrentFrameInfoFor(player, gamePhase);
+            List<String> input = new ArrayList<>(frame.size() + 1);
+            input.add(gamePhase.toString());
+            input.addAll(frame);
+            lines = Collections.unmodifiableList(input);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,110 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Scanner;
+
+//random bot reading the delta input (game parameter DELTA_INPUT, or --delta-input of the tournament runner):
+//it keeps the state up to date from the deltas and answers DESYNC (an invalid command) if its checksum differs
+public class DeltaInputAgent {
+    private static final String[] LOCATIONS = { "HAND", "DRAW", "DISCARD", "PLAYED_CARDS", "AUTOMATED", "OPPONENT_CARDS", "OPPONENT_AUTOMATED" };
+
+    public static void main(String[] args) {
+        Scanner scanner = new Scanner(System.in);
+        Random random = new Random();
+        Map<Integer, int[]> applications = new LinkedHashMap<>();
+        int[][] players = new int[2][4];
+        int[][] locations = new int[LOCATIONS.length][10];
+
+        while (true) {
+            String gamePhase = scanner.nextLine();
+            if (gamePhase.equals("RESET")) {
+                System.out.println("READY");
+                continue;
+            }
+            String line = scanner.nextLine();
+            boolean delta = line.startsWith("DELTA ");
+            int expectedChecksum = 0;
+            if (delta) {
+                expectedChecksum = Integer.parseInt(line.substring("DELTA ".length()));
+                int removedCount = Integer.parseInt(scanner.nextLine());
+                for (int i=0;i<removedCount;++i) {
+                    applications.remove(Integer.parseInt(scanner.nextLine()));
+                }
+            } else {
+                applications.clear();
+                int applicationsCount = Integer.parseInt(line);
+                for (int i=0;i<applicationsCount;++i) {
+                    String[] details = scanner.nextLine().split(" ");
+                    int[] resources = new int[8];
+                    for (int j=0;j<8;++j) {
+                        resources[j] = Integer.parseInt(details[j + 2]);
+                    }
+                    applications.put(Integer.parseInt(details[1]), resources);
+                }
+                for (int[] cards : locations) {
+                    Arrays.fill(cards, 0);
+                }
+            }
+            for (int[] player : players) {
+                String[] details = scanner.nextLine().split(" ");
+                for (int j=0;j<4;++j) {
+                    player[j] = Integer.parseInt(details[j]);
+                }
+            }
+            int locationsCount = Integer.parseInt(scanner.nextLine());
+            for (int i=0;i<locationsCount;++i) {
+                String[] details = scanner.nextLine().split(" ");
+                int[] cards = locations[indexOf(details[0])];
+                for (int j=0;j<10;++j) {
+                    cards[j] = Integer.parseInt(details[j + 1]);
+                }
+            }
+            int movesCount = Integer.parseInt(scanner.nextLine());
+            List<String> moves = new ArrayList<>();
+            for (int i=0;i<movesCount;++i) {
+                moves.add(scanner.nextLine());
+            }
+
+            if (delta && checksum(applications, players, locations) != expectedChecksum) {
+                System.out.println("DESYNC");
+            } else {
+                System.out.println(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    private static int indexOf(String location) {
+        for (int i=0;i<LOCATIONS.length;++i) {
+            if (LOCATIONS[i].equals(location)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(location);
+    }
+
+    private static int checksum(Map<Integer, int[]> applications, int[][] players, int[][] locations) {
+        int checksum = applications.size();
+        for (Iterator<Map.Entry<Integer, int[]>> it = applications.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Integer, int[]> application = it.next();
+            checksum = 31 * checksum + application.getKey();
+            for (int resources : application.getValue()) {
+                checksum = 31 * checksum + resources;
+            }
+        }
+        for (int[] values : players) {
+            for (int value : values) {
+                checksum = 31 * checksum + value;
+            }
+        }
+        for (int[] cards : locations) {
+            for (int count : cards) {
+                checksum = 31 * checksum + count;
+            }
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,40 @@
+import java.util.Random;
+import java.util.Scanner;
+
+//random bot answering with a whole-turn plan (game parameter TURN_PLANS, or --turn-plans of the tournament runner):
+//a random possible move, then a random action for each of the next phases of its turn
+//(';' separates the planned commands, so it cannot appear in a message when TURN_PLANS is on)
+public class PlanningAgent {
+    private static final String PLAN = ";RANDOM;RANDOM;RANDOM;RANDOM;RANDOM";
+
+    public static void main(String[] args) {
+        Scanner scanner = new Scanner(System.in);
+        Random random = new Random();
+
+        while (true) {
+            String gamePhase = scanner.nextLine();
+            if (gamePhase.equals("RESET")) {
+                System.out.println("READY");
+                continue;
+            }
+            int applicationsCount = Integer.parseInt(scanner.nextLine());
+            for (int i=0;i<applicationsCount;++i) {
+                scanner.nextLine();
+            }
+            scanner.nextLine(); //me
+            scanner.nextLine(); //opponent
+            int cardLocationsCount = Integer.parseInt(scanner.nextLine());
+            for (int i=0;i<cardLocationsCount;++i) {
+                scanner.nextLine();
+            }
+            int movesCount = Integer.parseInt(scanner.nextLine());
+            String[] moves = new String[movesCount];
+            for (int i=0;i<movesCount;++i) {
+                moves[i] = scanner.nextLine();
+            }
+
+            String move = movesCount == 0 ? "RANDOM" : moves[random.nextInt(movesCount)];
+            System.out.println(move + PLAN);
+        }
+    }
+}
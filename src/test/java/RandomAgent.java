@@ -12,6 +12,11 @@ public class RandomAgent {
         while (true) {
             //read game phase
             String gamePhase = scanner.nextLine();
+            if (gamePhase.equals("RESET")) {
+                //reused for a new match by the tournament runner: nothing is kept from one turn to the next
+                System.out.println("READY");
+                continue;
+            }
             System.err.println("Random agent");
             System.err.println(gamePhase);
 
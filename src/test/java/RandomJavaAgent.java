@@ -0,0 +1,24 @@
+import com.codingame.game.action.ActionCode;
+import com.codingame.game.tournament.Agent;
+import com.codingame.game.tournament.TurnInput;
+
+import java.util.Random;
+
+//plays one of the possible actions at random, called directly by the tournament runner
+public class RandomJavaAgent implements Agent {
+    private final Random random = new Random();
+
+    @Override
+    public String play(TurnInput input) {
+        int[] possibleActions = input.getPossibleActions();
+        if (possibleActions.length == 0) {
+            return "RANDOM";
+        }
+        return ActionCode.toString(possibleActions[random.nextInt(possibleActions.length)]);
+    }
+
+    @Override
+    public boolean reset(int timeout) {
+        return true;
+    }
+}